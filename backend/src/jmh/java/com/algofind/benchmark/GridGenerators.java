@@ -0,0 +1,143 @@
+package com.algofind.benchmark;
+
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingRequest.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded grid generators for the benchmarks. The same terrain, size and seed always
+ * produce the same request, so runs on different commits are comparable.
+ */
+public final class GridGenerators {
+
+    public enum Terrain {
+        OPEN,
+        OBSTACLES_10,
+        OBSTACLES_25,
+        OBSTACLES_40,
+        MAZE,
+        WEIGHTED
+    }
+
+    private static final int WEIGHT_BLOCK = 16;
+    private static final int MAX_WEIGHT = 9;
+
+    private GridGenerators() {}
+
+    public static PathfindingRequest generate(Terrain terrain, int size, boolean allowDiagonal, long seed) {
+        Random random = new Random(seed);
+        PathfindingRequest request = new PathfindingRequest();
+        request.setGridSize(size);
+        request.setAllowDiagonal(allowDiagonal);
+        request.setStart(new Point(0, 0));
+        request.setEnd(new Point(size - 1, size - 1));
+
+        switch (terrain) {
+            case OPEN -> request.setBarriers(new ArrayList<>());
+            case OBSTACLES_10 -> request.setBarriers(obstacles(size, 0.10, random));
+            case OBSTACLES_25 -> request.setBarriers(obstacles(size, 0.25, random));
+            case OBSTACLES_40 -> request.setBarriers(obstacles(size, 0.40, random));
+            case MAZE -> {
+                int last = (size - 1) & ~1;
+                request.setEnd(new Point(last, last));
+                request.setBarriers(maze(size, random));
+            }
+            case WEIGHTED -> request.setBarriers(weighted(size, random));
+        }
+
+        return request;
+    }
+
+    private static List<Point> obstacles(int size, double density, Random random) {
+        List<Point> barriers = new ArrayList<>();
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                boolean endpoint = (x == 0 && y == 0) || (x == size - 1 && y == size - 1);
+                if (!endpoint && random.nextDouble() < density) {
+                    barriers.add(new Point(x, y, 0));
+                }
+            }
+        }
+        return barriers;
+    }
+
+    // Perfect maze carved by an iterative randomized depth-first search over the
+    // even coordinates; every odd row and column starts out as wall.
+    private static List<Point> maze(int size, Random random) {
+        int cells = (size + 1) / 2;
+        boolean[] open = new boolean[size * size];
+        boolean[] carved = new boolean[cells * cells];
+        int[] stack = new int[cells * cells];
+        int[] options = new int[4];
+        int top = 0;
+
+        stack[top++] = 0;
+        carved[0] = true;
+        open[0] = true;
+
+        while (top > 0) {
+            int cell = stack[top - 1];
+            int cx = cell % cells;
+            int cy = cell / cells;
+
+            int count = 0;
+            if (cx > 0 && !carved[cell - 1]) options[count++] = cell - 1;
+            if (cx < cells - 1 && !carved[cell + 1]) options[count++] = cell + 1;
+            if (cy > 0 && !carved[cell - cells]) options[count++] = cell - cells;
+            if (cy < cells - 1 && !carved[cell + cells]) options[count++] = cell + cells;
+
+            if (count == 0) {
+                top--;
+                continue;
+            }
+
+            int next = options[random.nextInt(count)];
+            int nx = next % cells;
+            int ny = next / cells;
+            carved[next] = true;
+            open[(2 * ny) * size + 2 * nx] = true;
+            open[(cy + ny) * size + (cx + nx)] = true;
+            stack[top++] = next;
+        }
+
+        List<Point> barriers = new ArrayList<>();
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (!open[y * size + x]) {
+                    barriers.add(new Point(x, y, 0));
+                }
+            }
+        }
+        return barriers;
+    }
+
+    // Smooth terrain: random weights on a coarse lattice, bilinearly interpolated
+    // and rounded, so the cost field has hills and valleys rather than noise.
+    private static List<Point> weighted(int size, Random random) {
+        int lattice = size / WEIGHT_BLOCK + 2;
+        double[] corners = new double[lattice * lattice];
+        for (int i = 0; i < corners.length; i++) {
+            corners[i] = random.nextDouble() * MAX_WEIGHT;
+        }
+
+        List<Point> barriers = new ArrayList<>();
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int lx = x / WEIGHT_BLOCK;
+                int ly = y / WEIGHT_BLOCK;
+                double fx = (x % WEIGHT_BLOCK) / (double) WEIGHT_BLOCK;
+                double fy = (y % WEIGHT_BLOCK) / (double) WEIGHT_BLOCK;
+                double top = corners[ly * lattice + lx] * (1 - fx) + corners[ly * lattice + lx + 1] * fx;
+                double bottom = corners[(ly + 1) * lattice + lx] * (1 - fx) + corners[(ly + 1) * lattice + lx + 1] * fx;
+                int weight = (int) Math.round(top * (1 - fy) + bottom * fy);
+                if (weight > 0) {
+                    barriers.add(new Point(x, y, weight));
+                }
+            }
+        }
+        return barriers;
+    }
+}
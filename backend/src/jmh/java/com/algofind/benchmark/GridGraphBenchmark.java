@@ -0,0 +1,53 @@
+package com.algofind.benchmark;
+
+import com.algofind.benchmark.GridGenerators.Terrain;
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.model.GridGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a {@link GridGraph} from a request's barrier list, which every
+ * search pays before it expands a single node.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class GridGraphBenchmark {
+
+    @Param({"OPEN", "OBSTACLES_25", "MAZE", "WEIGHTED"})
+    private Terrain terrain;
+
+    @Param({"100", "512", "1024", "4096"})
+    private int size;
+
+    @Param("42")
+    private long seed;
+
+    private PathfindingRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        request = GridGenerators.generate(terrain, size, false, seed);
+    }
+
+    @Benchmark
+    public GridGraph build() {
+        return GridGraph.from(request);
+    }
+}
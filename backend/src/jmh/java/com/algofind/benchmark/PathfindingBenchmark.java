@@ -0,0 +1,89 @@
+package com.algofind.benchmark;
+
+import com.algofind.benchmark.GridGenerators.Terrain;
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingRequest.Algorithm;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.service.PathfindingService;
+import com.algofind.service.SearchWorkspacePool;
+import com.algofind.service.algorithm.ALTService;
+import com.algofind.service.algorithm.AStarService;
+import com.algofind.service.algorithm.BFSService;
+import com.algofind.service.algorithm.BidirectionalAStarService;
+import com.algofind.service.algorithm.BidirectionalDijkstraService;
+import com.algofind.service.algorithm.DFSService;
+import com.algofind.service.algorithm.DijkstraService;
+import com.algofind.service.algorithm.FlowFieldService;
+import com.algofind.service.algorithm.HPAStarService;
+import com.algofind.service.algorithm.JPSService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of one search as the controller sees it: grid construction from the
+ * request plus the search itself. Run with {@code -prof gc} (the profile default) to get
+ * {@code gc.alloc.rate.norm}, the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class PathfindingBenchmark {
+
+    @Param({"A_STAR", "DIJKSTRA", "BFS", "DFS", "JPS", "HPA_STAR", "FLOW_FIELD", "BIDIRECTIONAL_DIJKSTRA",
+        "BIDIRECTIONAL_A_STAR", "ALT"})
+    private Algorithm algorithm;
+
+    @Param({"OPEN", "OBSTACLES_10", "OBSTACLES_25", "OBSTACLES_40", "MAZE", "WEIGHTED"})
+    private Terrain terrain;
+
+    @Param({"100", "512", "1024", "4096"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean allowDiagonal;
+
+    @Param("42")
+    private long seed;
+
+    private PathfindingService service;
+    private PathfindingRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        request = GridGenerators.generate(terrain, size, allowDiagonal, seed);
+        request.setAlgorithm(algorithm);
+        SearchWorkspacePool workspaces = new SearchWorkspacePool(4, (long) size * size * 4);
+        service = switch (algorithm) {
+            case A_STAR -> new AStarService(workspaces);
+            case DIJKSTRA -> new DijkstraService(workspaces);
+            case BFS -> new BFSService();
+            case DFS -> new DFSService();
+            case JPS -> new JPSService(new AStarService(workspaces), workspaces);
+            case HPA_STAR -> new HPAStarService(new AStarService(workspaces));
+            case FLOW_FIELD -> new FlowFieldService(new AStarService(workspaces));
+            case BIDIRECTIONAL_DIJKSTRA -> new BidirectionalDijkstraService(workspaces);
+            case BIDIRECTIONAL_A_STAR -> new BidirectionalAStarService(workspaces);
+            case ALT -> new ALTService(new AStarService(workspaces));
+        };
+    }
+
+    @Benchmark
+    public PathfindingResponse search() {
+        return service.execute(request);
+    }
+}
@@ -0,0 +1,91 @@
+package com.algofind.config;
+
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.service.SearchMetrics;
+import com.algofind.util.BinaryWireFormat;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads {@link PathfindingRequest} and writes {@link PathfindingResponse} in
+ * {@link BinaryWireFormat}, selected by Content-Type and Accept. JSON stays the
+ * default for clients that ask for nothing else.
+ */
+@Component
+public class BinaryWireConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final SearchMetrics searchMetrics;
+    private final Validator validator;
+
+    public BinaryWireConverter(SearchMetrics searchMetrics, Validator validator) {
+        super(MediaType.parseMediaType(BinaryWireFormat.MEDIA_TYPE));
+        this.searchMetrics = searchMetrics;
+        this.validator = validator;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == PathfindingRequest.class || clazz == PathfindingResponse.class;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return mediaType != null && super.canRead(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == PathfindingRequest.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return clazz == PathfindingResponse.class && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            // Decoding builds the grid, so this is the grid build time for binary requests.
+            long start = System.nanoTime();
+            PathfindingRequest request = BinaryWireFormat.readRequest(
+                new BufferedInputStream(inputMessage.getBody()), this::validate);
+            searchMetrics.recordGridBuild(request.getAlgorithm().name(), System.nanoTime() - start);
+            return request;
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new HttpMessageNotReadableException("Invalid binary request: " + ex.getMessage(), ex, inputMessage);
+        }
+    }
+
+    // Runs the request's constraints before its grid is built, so an oversized grid
+    // is turned away without being allocated. @Valid checks them again afterwards.
+    private void validate(PathfindingRequest request) {
+        Set<ConstraintViolation<PathfindingRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining(", ")));
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object response, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream out = new BufferedOutputStream(outputMessage.getBody());
+        BinaryWireFormat.writeResponse((PathfindingResponse) response, out);
+        out.flush();
+    }
+}
@@ -0,0 +1,35 @@
+package com.algofind.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Searches are CPU-bound, so by default one thread per core. Requests themselves
+    // can run on virtual threads; they only wait here. Once the queue is full, new
+    // searches are rejected and answered with 429 instead of piling up.
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor pathfindingExecutor(@Value("${app.search.threads}") int threads,
+                                               @Value("${app.search.queue-capacity}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+            Thread.ofPlatform().name("search-", 0).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Pool size, active threads, queued and completed searches under executor.*{name=search}.
+    @Bean
+    public MeterBinder pathfindingExecutorMetrics(ThreadPoolExecutor pathfindingExecutor) {
+        return new ExecutorServiceMetrics(pathfindingExecutor, "search", List.of());
+    }
+}
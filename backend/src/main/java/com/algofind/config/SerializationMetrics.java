@@ -0,0 +1,74 @@
+package com.algofind.config;
+
+import com.algofind.dto.BatchPathfindingResponse;
+import com.algofind.dto.ComparePathfindingResponse;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.service.SearchMetrics;
+import com.algofind.util.BinaryWireFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Times writing search responses. The clock starts just before the message converter
+ * runs and stops when the handler has finished, which for response bodies is right
+ * after they are written. Registered as an interceptor in {@link WebConfig}.
+ */
+@ControllerAdvice
+public class SerializationMetrics implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = SerializationMetrics.class.getName() + ".start";
+    private static final String ALGORITHM_ATTRIBUTE = SerializationMetrics.class.getName() + ".algorithm";
+    private static final String FORMAT_ATTRIBUTE = SerializationMetrics.class.getName() + ".format";
+    private static final MediaType BINARY = MediaType.parseMediaType(BinaryWireFormat.MEDIA_TYPE);
+
+    private final SearchMetrics searchMetrics;
+
+    public SerializationMetrics(SearchMetrics searchMetrics) {
+        this.searchMetrics = searchMetrics;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        String algorithm;
+        if (body instanceof PathfindingResponse pathResponse) {
+            algorithm = pathResponse.getAlgorithm();
+        } else if (body instanceof BatchPathfindingResponse || body instanceof ComparePathfindingResponse) {
+            algorithm = SearchMetrics.NO_ALGORITHM;
+        } else {
+            return body;
+        }
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            HttpServletRequest httpRequest = servletRequest.getServletRequest();
+            httpRequest.setAttribute(ALGORITHM_ATTRIBUTE, algorithm);
+            httpRequest.setAttribute(FORMAT_ATTRIBUTE, BINARY.includes(selectedContentType) ? "binary" : "json");
+            httpRequest.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return body;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (request.getAttribute(START_ATTRIBUTE) instanceof Long start) {
+            searchMetrics.recordSerialization((String) request.getAttribute(ALGORITHM_ATTRIBUTE),
+                (String) request.getAttribute(FORMAT_ATTRIBUTE), System.nanoTime() - start);
+        }
+    }
+}
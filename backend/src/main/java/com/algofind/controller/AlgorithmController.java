@@ -1,9 +1,21 @@
 package com.algofind.controller;
 
+import com.algofind.dto.BatchPathfindingRequest;
+import com.algofind.dto.BatchPathfindingResponse;
+import com.algofind.dto.ComparePathfindingRequest;
+import com.algofind.dto.ComparePathfindingResponse;
 import com.algofind.dto.PathfindingRequest;
 import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.GridGraph;
+import com.algofind.service.BatchPathfindingService;
+import com.algofind.service.ComparisonService;
 import com.algofind.service.PathfindingService;
 import com.algofind.service.PathfindingServiceFactory;
+import com.algofind.service.ResultCache;
+import com.algofind.service.SearchExecutor;
+import com.algofind.service.SearchMetrics;
+import com.algofind.service.StreamingPathfindingService;
+import com.algofind.util.BinaryWireFormat;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RestController;
@@ -11,7 +23,12 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
@@ -20,20 +37,84 @@ public class AlgorithmController {
     @Autowired
     private PathfindingServiceFactory serviceFactory;
 
-    @PostMapping("/pathfind")
+    @Autowired
+    private BatchPathfindingService batchService;
+
+    @Autowired
+    private StreamingPathfindingService streamingService;
+
+    @Autowired
+    private ComparisonService comparisonService;
+
+    @Autowired
+    private ResultCache resultCache;
+
+    @Autowired
+    private SearchExecutor searchExecutor;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    // JSON is listed first so it stays the default when Accept allows either.
+    @PostMapping(value = "/pathfind", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryWireFormat.MEDIA_TYPE})
     public ResponseEntity<PathfindingResponse> findPath(@Valid @RequestBody PathfindingRequest request) {
         long startTime = System.currentTimeMillis();
 
         PathfindingService service = serviceFactory.getService(request.getAlgorithm());
-        PathfindingResponse response = service.execute(request);
+        PathfindingResponse response = searchExecutor.execute(service, request, searchMetrics.gridFrom(request));
 
         response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/pathfind/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPath(@Valid @RequestBody PathfindingRequest request) {
+        PathfindingService service = serviceFactory.getService(request.getAlgorithm());
+        GridGraph grid = searchMetrics.gridFrom(request);
+        // Reject bad endpoints here, while the error can still be sent as a 400.
+        grid.indexOf(request.getStart());
+        grid.indexOf(request.getEnd());
+
+        StreamingResponseBody body = out -> streamingService.stream(service, request, grid, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping("/pathfind/batch")
+    public ResponseEntity<BatchPathfindingResponse> findPaths(@Valid @RequestBody BatchPathfindingRequest request) {
+        long startTime = System.currentTimeMillis();
+
+        if (request.getMap() == null) {
+            throw new IllegalArgumentException("map is required");
+        }
+        GridGraph grid = searchMetrics.gridFrom(request.getMap());
+        List<PathfindingResponse> results = batchService.execute(grid, request.getQueries());
+
+        return ResponseEntity.ok(new BatchPathfindingResponse(results, System.currentTimeMillis() - startTime));
+    }
+
+    @PostMapping("/pathfind/compare")
+    public ResponseEntity<ComparePathfindingResponse> compare(@Valid @RequestBody ComparePathfindingRequest request) {
+        long startTime = System.currentTimeMillis();
+
+        if (request.getMap() == null) {
+            throw new IllegalArgumentException("map is required");
+        }
+        GridGraph grid = searchMetrics.gridFrom(request.getMap());
+        ComparePathfindingResponse response = comparisonService.compare(grid, request);
+
+        response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Long>> getCacheStats() {
+        return ResponseEntity.ok(resultCache.getStats());
+    }
+
     @GetMapping("/algorithms")
     public ResponseEntity<String[]> getAvailableAlgorithms() {
-        String[] algorithms = {"DFS", "BFS", "DIJKSTRA", "A_STAR"};
+        String[] algorithms = {"DFS", "BFS", "DIJKSTRA", "A_STAR", "JPS", "HPA_STAR", "FLOW_FIELD",
+                "BIDIRECTIONAL_DIJKSTRA", "BIDIRECTIONAL_A_STAR", "ALT"};
         return ResponseEntity.ok(algorithms);
     }
 }
@@ -0,0 +1,188 @@
+package com.algofind.controller;
+
+import com.algofind.dto.BatchPathfindingRequest;
+import com.algofind.dto.BatchPathfindingResponse;
+import com.algofind.dto.ComparePathfindingRequest;
+import com.algofind.dto.ComparePathfindingResponse;
+import com.algofind.dto.MapQueryRequest;
+import com.algofind.dto.MapUpdateRequest;
+import com.algofind.dto.MapUpdateResponse;
+import com.algofind.dto.MapUploadRequest;
+import com.algofind.dto.MapUploadResponse;
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingRequest.Point;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.GridGraph;
+import com.algofind.model.StoredMap;
+import com.algofind.service.BatchPathfindingService;
+import com.algofind.service.ComparisonService;
+import com.algofind.service.MapRegistry;
+import com.algofind.service.PathfindingService;
+import com.algofind.service.PathfindingServiceFactory;
+import com.algofind.service.SearchExecutor;
+import com.algofind.service.SearchMetrics;
+import com.algofind.util.BinaryWireFormat;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+@RestController
+@RequestMapping("/api/maps")
+public class MapController {
+
+    @Autowired
+    private PathfindingServiceFactory serviceFactory;
+
+    @Autowired
+    private MapRegistry mapRegistry;
+
+    @Autowired
+    private BatchPathfindingService batchService;
+
+    @Autowired
+    private ComparisonService comparisonService;
+
+    @Autowired
+    private SearchExecutor searchExecutor;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    @PostMapping
+    public ResponseEntity<MapUploadResponse> uploadMap(@Valid @RequestBody MapUploadRequest request) {
+        GridGraph grid = searchMetrics.gridFrom(request);
+        StoredMap map = mapRegistry.register(grid);
+        return ResponseEntity.ok(new MapUploadResponse(map.getId(), grid.getWidth(), grid.getHeight(), grid.isAllowDiagonal()));
+    }
+
+    @PostMapping(value = "/{mapId}/pathfind", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryWireFormat.MEDIA_TYPE})
+    public ResponseEntity<PathfindingResponse> findPath(@PathVariable String mapId,
+                                                        @Valid @RequestBody MapQueryRequest query) {
+        long startTime = System.currentTimeMillis();
+
+        StoredMap map = mapRegistry.get(mapId);
+        GridGraph grid = map.getGrid();
+        PathfindingRequest request = query.toPathfindingRequest(grid.getWidth(), grid.getHeight(), grid.isAllowDiagonal());
+        PathfindingService service = serviceFactory.getService(request.getAlgorithm());
+
+        PathfindingResponse response;
+        Lock lock = map.getLock().readLock();
+        lock.lock();
+        try {
+            response = searchExecutor.execute(service, request, grid);
+        } finally {
+            lock.unlock();
+        }
+
+        response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{mapId}/pathfind/batch")
+    public ResponseEntity<BatchPathfindingResponse> findPaths(@PathVariable String mapId,
+                                                              @Valid @RequestBody BatchPathfindingRequest request) {
+        long startTime = System.currentTimeMillis();
+
+        if (request.getMap() != null) {
+            throw new IllegalArgumentException("map must not be given for a stored map");
+        }
+        StoredMap map = mapRegistry.get(mapId);
+
+        List<PathfindingResponse> results;
+        Lock lock = map.getLock().readLock();
+        lock.lock();
+        try {
+            results = batchService.execute(map.getGrid(), request.getQueries());
+        } finally {
+            lock.unlock();
+        }
+
+        return ResponseEntity.ok(new BatchPathfindingResponse(results, System.currentTimeMillis() - startTime));
+    }
+
+    @PostMapping("/{mapId}/pathfind/compare")
+    public ResponseEntity<ComparePathfindingResponse> compare(@PathVariable String mapId,
+                                                              @Valid @RequestBody ComparePathfindingRequest request) {
+        long startTime = System.currentTimeMillis();
+
+        if (request.getMap() != null) {
+            throw new IllegalArgumentException("map must not be given for a stored map");
+        }
+        StoredMap map = mapRegistry.get(mapId);
+
+        ComparePathfindingResponse response;
+        Lock lock = map.getLock().readLock();
+        lock.lock();
+        try {
+            response = comparisonService.compare(map.getGrid(), request);
+        } finally {
+            lock.unlock();
+        }
+
+        response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Applies cell changes in place. Structures derived from the grid are updated or
+     * dropped for the changed cells only; queries wait while the edit is applied.
+     */
+    @PatchMapping("/{mapId}")
+    public ResponseEntity<MapUpdateResponse> updateMap(@PathVariable String mapId,
+                                                       @Valid @RequestBody MapUpdateRequest update) {
+        long startTime = System.currentTimeMillis();
+
+        StoredMap map = mapRegistry.get(mapId);
+        GridGraph grid = map.getGrid();
+        List<Point> set = update.getSet() != null ? update.getSet() : List.of();
+        List<Point> clear = update.getClear() != null ? update.getClear() : List.of();
+
+        // Resolve every cell first so an out-of-bounds point rejects the whole update.
+        int[] cells = new int[set.size() + clear.size()];
+        int count = 0;
+        for (Point point : set) {
+            cells[count++] = grid.indexOf(point);
+        }
+        for (Point point : clear) {
+            cells[count++] = grid.indexOf(point);
+        }
+
+        Lock lock = map.getLock().writeLock();
+        lock.lock();
+        try {
+            // Likewise for running out of room for distinct weights partway through.
+            grid.checkBarriers(set);
+            try {
+                for (Point point : set) {
+                    grid.setBarrier(point.getX(), point.getY(), point.getWeight());
+                }
+                for (Point point : clear) {
+                    grid.clearBarrier(point.getX(), point.getY());
+                }
+            } finally {
+                grid.cellsChanged(cells);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return ResponseEntity.ok(new MapUpdateResponse(mapId, cells.length, System.currentTimeMillis() - startTime));
+    }
+
+    @DeleteMapping("/{mapId}")
+    public ResponseEntity<Void> deleteMap(@PathVariable String mapId) {
+        mapRegistry.remove(mapId);
+        return ResponseEntity.noContent().build();
+    }
+}
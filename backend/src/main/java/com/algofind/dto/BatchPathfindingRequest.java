@@ -0,0 +1,22 @@
+package com.algofind.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Many queries against one grid, which is built once for the whole batch. Stored maps
+ * are queried in batches without {@code map}.
+ */
+@Data
+public class BatchPathfindingRequest {
+    @Valid
+    private MapUploadRequest map;
+
+    @NotEmpty
+    @Size(max = 10000)
+    private List<@Valid MapQueryRequest> queries;
+}
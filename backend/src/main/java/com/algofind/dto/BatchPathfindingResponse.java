@@ -0,0 +1,16 @@
+package com.algofind.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPathfindingResponse {
+    // In the same order as the queries.
+    private List<PathfindingResponse> results;
+    private long executionTimeMs;
+}
@@ -0,0 +1,68 @@
+package com.algofind.dto;
+
+import java.util.List;
+
+import com.algofind.dto.PathfindingRequest.Algorithm;
+import com.algofind.dto.PathfindingRequest.Point;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * One query run under several algorithms against one grid, which is built once.
+ * Stored maps are compared without {@code map}. Algorithms listed more than once are
+ * run once.
+ */
+@Data
+public class ComparePathfindingRequest {
+    @Valid
+    private MapUploadRequest map;
+
+    @NotNull
+    @Valid
+    private Point start;
+
+    @NotNull
+    @Valid
+    private Point end;
+
+    @NotEmpty
+    private List<@NotNull Algorithm> algorithms;
+
+    private Boolean includeVisited;
+
+    @Min(1)
+    private Integer visitedStride;
+
+    @Min(0)
+    private Integer visitedLimit;
+
+    @Min(1)
+    private Long maxTimeMs;
+
+    @Min(1)
+    private Integer maxNodes;
+
+    @Min(1)
+    private Integer maxFrontier;
+
+    private Long seed;
+
+    public MapQueryRequest toQuery(Algorithm algorithm) {
+        MapQueryRequest query = new MapQueryRequest();
+        query.setStart(start);
+        query.setEnd(end);
+        query.setAlgorithm(algorithm);
+        query.setIncludeVisited(includeVisited);
+        query.setVisitedStride(visitedStride);
+        query.setVisitedLimit(visitedLimit);
+        query.setMaxTimeMs(maxTimeMs);
+        query.setMaxNodes(maxNodes);
+        query.setMaxFrontier(maxFrontier);
+        query.setSeed(seed);
+        return query;
+    }
+}
@@ -0,0 +1,38 @@
+package com.algofind.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComparePathfindingResponse {
+    // Both in the order the algorithms were asked for.
+    private List<PathfindingResponse> results;
+    private List<Comparison> comparison;
+
+    // Null when no algorithm found a path.
+    private String fastest;
+    private String fewestNodesExplored;
+    private Double lowestPathCost;
+
+    private long executionTimeMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Comparison {
+        private String algorithm;
+        private boolean pathFound;
+        private long executionTimeMs;
+        private int nodesExplored;
+        private int pathLength;
+        // Null without a path. costRatio is pathCost over lowestPathCost, so 1.0 for
+        // every algorithm that found an optimal path.
+        private Double pathCost;
+        private Double costRatio;
+    }
+}
@@ -0,0 +1,62 @@
+package com.algofind.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * A query against a stored map. The grid comes from the map, so only the endpoints
+ * and the algorithm are sent.
+ */
+@Data
+public class MapQueryRequest {
+    @NotNull
+    @Valid
+    private PathfindingRequest.Point start;
+
+    @NotNull
+    @Valid
+    private PathfindingRequest.Point end;
+
+    @NotNull
+    private PathfindingRequest.Algorithm algorithm;
+
+    // Defaults to false: stored maps are meant for clients querying them repeatedly.
+    private Boolean includeVisited;
+
+    @Min(1)
+    private Integer visitedStride;
+
+    @Min(0)
+    private Integer visitedLimit;
+
+    @Min(1)
+    private Long maxTimeMs;
+
+    @Min(1)
+    private Integer maxNodes;
+
+    @Min(1)
+    private Integer maxFrontier;
+
+    private Long seed;
+
+    public PathfindingRequest toPathfindingRequest(int width, int height, boolean allowDiagonal) {
+        PathfindingRequest request = new PathfindingRequest();
+        request.setWidth(width);
+        request.setHeight(height);
+        request.setAllowDiagonal(allowDiagonal);
+        request.setStart(start);
+        request.setEnd(end);
+        request.setAlgorithm(algorithm);
+        request.setIncludeVisited(includeVisited);
+        request.setVisitedStride(visitedStride);
+        request.setVisitedLimit(visitedLimit);
+        request.setSeed(seed);
+        request.setMaxTimeMs(maxTimeMs);
+        request.setMaxNodes(maxNodes);
+        request.setMaxFrontier(maxFrontier);
+        return request;
+    }
+}
@@ -0,0 +1,20 @@
+package com.algofind.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import lombok.Data;
+
+/**
+ * Cell changes for a stored map. {@code set} uses barrier semantics (a weight of zero
+ * or less is a wall, a positive weight an extra cost); {@code clear} makes cells open
+ * and unweighted again.
+ */
+@Data
+public class MapUpdateRequest {
+    @Valid
+    private List<PathfindingRequest.Point> set;
+
+    @Valid
+    private List<PathfindingRequest.Point> clear;
+}
@@ -0,0 +1,14 @@
+package com.algofind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapUpdateResponse {
+    private String mapId;
+    private int cellsChanged;
+    private long executionTimeMs;
+}
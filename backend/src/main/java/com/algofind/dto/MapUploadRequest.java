@@ -0,0 +1,30 @@
+package com.algofind.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+/**
+ * A map stored on the server so later queries only send start, end and algorithm.
+ * Takes either gridSize or width and height, like {@link PathfindingRequest}.
+ */
+@Data
+public class MapUploadRequest {
+    @Min(2)
+    @Max(100)
+    private Integer gridSize;
+
+    @Min(2)
+    @Max(10000)
+    private Integer width;
+
+    @Min(2)
+    @Max(10000)
+    private Integer height;
+
+    private List<PathfindingRequest.Point> barriers;
+
+    private boolean allowDiagonal;
+}
@@ -0,0 +1,15 @@
+package com.algofind.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapUploadResponse {
+    private String mapId;
+    private int width;
+    private int height;
+    private boolean allowDiagonal;
+}
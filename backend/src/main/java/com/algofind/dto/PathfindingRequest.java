@@ -2,6 +2,9 @@ package com.algofind.dto;
 
 import java.util.List;
 
+import com.algofind.model.GridGraph;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -17,7 +20,13 @@ public class PathfindingRequest {
         DFS,
         BFS,
         DIJKSTRA,
-        A_STAR
+        A_STAR,
+        JPS,
+        HPA_STAR,
+        FLOW_FIELD,
+        BIDIRECTIONAL_DIJKSTRA,
+        BIDIRECTIONAL_A_STAR,
+        ALT
     }
 
     @Data
@@ -37,7 +46,16 @@ public class PathfindingRequest {
     }
     @Min(2)
     @Max(100)
-    private int gridSize;
+    private Integer gridSize;
+
+    // Large-map mode: rectangular grids given by width and height instead of gridSize.
+    @Min(2)
+    @Max(10000)
+    private Integer width;
+
+    @Min(2)
+    @Max(10000)
+    private Integer height;
 
     @NotNull
     @Valid
@@ -54,4 +72,41 @@ public class PathfindingRequest {
 
     private boolean allowDiagonal;
 
+    // Defaults to true for gridSize requests and false in large-map mode.
+    private Boolean includeVisited;
+
+    // Keep every visitedStride-th visited cell, and at most visitedLimit of them.
+    @Min(1)
+    private Integer visitedStride;
+
+    @Min(0)
+    private Integer visitedLimit;
+
+    // Optional limits on the search; see SearchBudget.
+    @Min(1)
+    private Long maxTimeMs;
+
+    @Min(1)
+    private Integer maxNodes;
+
+    @Min(1)
+    private Integer maxFrontier;
+
+    // Makes BFS, which breaks ties at random, deterministic (and so cacheable).
+    private Long seed;
+
+    // Set instead of barriers when the request arrived in the binary wire format,
+    // which decodes straight into a grid.
+    @JsonIgnore
+    private GridGraph grid;
+
+    @JsonIgnore
+    public boolean isLargeMap() {
+        return width != null || height != null;
+    }
+
+    @JsonIgnore
+    public boolean shouldIncludeVisited() {
+        return includeVisited != null ? includeVisited : !isLargeMap();
+    }
 }
@@ -2,18 +2,44 @@ package com.algofind.dto;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class PathfindingResponse {
+    public enum Status {
+        COMPLETE,
+        TIME_LIMIT,
+        NODE_LIMIT,
+        FRONTIER_LIMIT
+    }
+
     private List<PathfindingRequest.Point> path;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<PathfindingRequest.Point> visitedPath;
     private int nodesExplored;
     private long executionTimeMs;
     private boolean pathFound;
     private String algorithm;
+    // Per-side split of nodesExplored, set by the bidirectional searches only.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer forwardNodesExplored;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer backwardNodesExplored;
+    // Anything but COMPLETE means a request budget stopped the search early: path is
+    // then the best one found so far, and only reaches the end when pathFound is set.
+    private Status status = Status.COMPLETE;
+
+    public PathfindingResponse(List<PathfindingRequest.Point> path, List<PathfindingRequest.Point> visitedPath,
+                               int nodesExplored, long executionTimeMs, boolean pathFound, String algorithm) {
+        this.path = path;
+        this.visitedPath = visitedPath;
+        this.nodesExplored = nodesExplored;
+        this.executionTimeMs = executionTimeMs;
+        this.pathFound = pathFound;
+        this.algorithm = algorithm;
+    }
 }
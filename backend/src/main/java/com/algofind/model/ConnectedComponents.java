@@ -0,0 +1,363 @@
+package com.algofind.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Labels every open cell with its connected component under the grid's own moves, so
+ * diagonal steps join cells only on grids that allow them. A search can get from one
+ * open cell to another exactly when they share a label, which lets a query whose end
+ * is cut off be answered before any search runs.
+ *
+ * <p>Stored maps build this on upload and keep it up to date as cells change. Opening
+ * cells merges the components around them into the largest one, relabeling only the
+ * smaller ones. Walling a cell off relabels nothing while the open cells around it stay
+ * joined locally; otherwise searches from each side find out whether it split the
+ * component, and only the parts that broke off are relabeled.
+ */
+public final class ConnectedComponents implements GridDerivedData {
+
+    // Walls, and open cells not labeled yet while an update is being applied.
+    private static final int UNLABELED = 0;
+    private static final int ANY = -1;
+
+    private final int[] labels;
+    private int[] sizes = new int[64];
+    private int[] freeLabels = new int[16];
+    private int freeCount;
+    private int nextLabel = 1;
+
+    public ConnectedComponents(GridGraph grid) {
+        this.labels = new int[grid.getCellCount()];
+        for (int cell = 0; cell < labels.length; cell++) {
+            if (labels[cell] == UNLABELED && !grid.isImpassable(cell)) {
+                fill(grid, cell, newLabel(), UNLABELED);
+            }
+        }
+    }
+
+    /**
+     * True when this grid has its components computed and they show that no search
+     * can get from {@code start} to {@code end}. Grids without them are never
+     * reported unreachable.
+     */
+    public static boolean isUnreachable(GridGraph grid, int start, int end) {
+        ConnectedComponents components = grid.getDerivedIfPresent(ConnectedComponents.class);
+        return components != null && !components.canReach(grid, start, end);
+    }
+
+    /**
+     * Whether a search from {@code start} can get to {@code end}. As in the searches, a
+     * start on a wall may step off it, but a wall is never entered.
+     */
+    public boolean canReach(GridGraph grid, int start, int end) {
+        if (start == end) {
+            return true;
+        }
+        int target = labels[end];
+        if (target == UNLABELED) {
+            return false;
+        }
+        if (labels[start] != UNLABELED) {
+            return labels[start] == target;
+        }
+        for (int direction = 0; direction < grid.getDirectionCount(); direction++) {
+            int neighbor = grid.getNeighbor(start, direction);
+            if (neighbor >= 0 && labels[neighbor] == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getComponentCount() {
+        return nextLabel - 1 - freeCount;
+    }
+
+    /**
+     * Some cell of the component with the most cells, or -1 when there are no open cells.
+     */
+    public int cellOfLargestComponent() {
+        int largest = UNLABELED;
+        for (int label = 1; label < nextLabel; label++) {
+            if (sizes[label] > (largest == UNLABELED ? 0 : sizes[largest])) {
+                largest = label;
+            }
+        }
+        if (largest == UNLABELED) {
+            return -1;
+        }
+        for (int cell = 0; cell < labels.length; cell++) {
+            if (labels[cell] == largest) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean cellsChanged(GridGraph grid, int[] cells) {
+        // Walls first, so the merges below run over components that are correct
+        // without the newly opened cells.
+        int[] walled = new int[cells.length];
+        int walledCount = 0;
+        for (int cell : cells) {
+            if (grid.isImpassable(cell) && labels[cell] != UNLABELED) {
+                relabel(cell, UNLABELED);
+                walled[walledCount++] = cell;
+            }
+        }
+        walled = Arrays.copyOf(walled, walledCount);
+        Arrays.sort(walled);
+
+        int[] splitCandidates = new int[walledCount * GridGraph.MAX_NEIGHBORS];
+        int candidateCount = 0;
+        for (int cell : walled) {
+            candidateCount = addSplitCandidates(grid, cell, walled, splitCandidates, candidateCount);
+        }
+        resolveSplits(grid, splitCandidates, candidateCount);
+
+        for (int cell : cells) {
+            if (!grid.isImpassable(cell) && labels[cell] == UNLABELED) {
+                merge(grid, cell);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds one open neighbor of the newly walled {@code cell} for each group of its
+     * neighbors that are still joined without it, going around the cell. A single group
+     * means this cell did not split anything, unless it is next to another cell walled
+     * in the same update: a path through both is not visible from either alone.
+     */
+    private int addSplitCandidates(GridGraph grid, int cell, int[] walled, int[] candidates, int count) {
+        int width = grid.getWidth();
+        int x = grid.getX(cell);
+        int y = grid.getY(cell);
+
+        // The 3x3 block around the cell, row by row, with the cell itself left out.
+        int[] ring = new int[8];
+        int ringSize = 0;
+        boolean nextToWalled = false;
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                int nx = x + dx;
+                int ny = y + dy;
+                if ((dx == 0 && dy == 0) || nx < 0 || nx >= width || ny < 0 || ny >= grid.getHeight()) {
+                    continue;
+                }
+                int neighbor = ny * width + nx;
+                if (labels[neighbor] != UNLABELED) {
+                    ring[ringSize++] = neighbor;
+                } else if (Arrays.binarySearch(walled, neighbor) >= 0 && isMove(grid, cell, neighbor)) {
+                    nextToWalled = true;
+                }
+            }
+        }
+
+        int[] group = new int[ringSize];
+        for (int i = 0; i < ringSize; i++) {
+            group[i] = i;
+        }
+        for (int i = 0; i < ringSize; i++) {
+            for (int j = i + 1; j < ringSize; j++) {
+                if (isMove(grid, ring[i], ring[j])) {
+                    int from = root(group, j);
+                    int to = root(group, i);
+                    group[from] = to;
+                }
+            }
+        }
+
+        int first = count;
+        for (int i = 0; i < ringSize; i++) {
+            if (!isMove(grid, cell, ring[i])) {
+                continue;
+            }
+            int root = root(group, i);
+            boolean seen = false;
+            for (int c = first; c < count && !seen; c++) {
+                seen = root(group, indexIn(ring, ringSize, candidates[c])) == root;
+            }
+            if (!seen) {
+                candidates[count++] = ring[i];
+            }
+        }
+        return count - first > 1 || nextToWalled ? count : first;
+    }
+
+    private void resolveSplits(GridGraph grid, int[] candidates, int count) {
+        Map<Integer, List<Integer>> byLabel = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            byLabel.computeIfAbsent(labels[candidates[i]], key -> new ArrayList<>()).add(candidates[i]);
+        }
+        for (List<Integer> starts : byLabel.values()) {
+            if (starts.size() > 1) {
+                separate(grid, starts);
+            }
+        }
+    }
+
+    /**
+     * Splits the component holding {@code starts} into its connected parts. A search
+     * grows from each start, one cell per turn, and searches that meet are joined into
+     * one group. A group that runs out of cells has covered a whole part, which gets a
+     * new label; the last group left keeps the old one. Each part that breaks off is
+     * walked a bounded number of times over, and the largest is never walked in full.
+     */
+    private void separate(GridGraph grid, List<Integer> starts) {
+        int label = labels[starts.get(0)];
+        int count = starts.size();
+        // Each search's cells in the order found; those from its head on are its frontier.
+        int[][] found = new int[count][];
+        int[] heads = new int[count];
+        int[] sizes = new int[count];
+        int[] group = new int[count];
+        Map<Integer, Integer> owners = new HashMap<>();
+        int groups = count;
+        for (int i = 0; i < count; i++) {
+            group[i] = i;
+            Integer owner = owners.putIfAbsent(starts.get(i), i);
+            if (owner != null) {
+                group[i] = root(group, owner);
+                groups--;
+            } else {
+                found[i] = new int[16];
+                found[i][sizes[i]++] = starts.get(i);
+            }
+        }
+
+        while (groups > 1) {
+            for (int i = 0; i < count && groups > 1; i++) {
+                if (heads[i] == sizes[i]) {
+                    continue;
+                }
+                int cell = found[i][heads[i]++];
+                for (int direction = 0; direction < grid.getDirectionCount(); direction++) {
+                    int neighbor = grid.getNeighbor(cell, direction);
+                    if (neighbor < 0 || labels[neighbor] != label) {
+                        continue;
+                    }
+                    Integer owner = owners.putIfAbsent(neighbor, i);
+                    if (owner == null) {
+                        if (sizes[i] == found[i].length) {
+                            found[i] = Arrays.copyOf(found[i], sizes[i] * 2);
+                        }
+                        found[i][sizes[i]++] = neighbor;
+                    } else if (root(group, owner) != root(group, i)) {
+                        group[root(group, owner)] = root(group, i);
+                        groups--;
+                    }
+                }
+
+                int root = root(group, i);
+                boolean exhausted = true;
+                for (int j = 0; j < count && exhausted; j++) {
+                    exhausted = root(group, j) != root || heads[j] == sizes[j];
+                }
+                if (exhausted) {
+                    int part = newLabel();
+                    for (int j = 0; j < count; j++) {
+                        if (root(group, j) == root) {
+                            for (int k = 0; k < sizes[j]; k++) {
+                                relabel(found[j][k], part);
+                            }
+                            // Nothing left for it to grow into; keep it out of later turns.
+                            sizes[j] = 0;
+                            heads[j] = 0;
+                        }
+                    }
+                    groups--;
+                }
+            }
+        }
+    }
+
+    private void merge(GridGraph grid, int cell) {
+        int largest = UNLABELED;
+        for (int direction = 0; direction < grid.getDirectionCount(); direction++) {
+            int neighbor = grid.getNeighbor(cell, direction);
+            if (neighbor >= 0 && labels[neighbor] != UNLABELED
+                    && (largest == UNLABELED || sizes[labels[neighbor]] > sizes[largest])) {
+                largest = labels[neighbor];
+            }
+        }
+        fill(grid, cell, largest != UNLABELED ? largest : newLabel(), ANY);
+    }
+
+    /**
+     * Gives {@code label} to {@code from} and every open cell connected to it that
+     * carries {@code only}, or any other label when {@code only} is {@link #ANY}.
+     */
+    private void fill(GridGraph grid, int from, int label, int only) {
+        int[] stack = new int[256];
+        int top = 0;
+        relabel(from, label);
+        stack[top++] = from;
+        while (top > 0) {
+            int cell = stack[--top];
+            for (int direction = 0; direction < grid.getDirectionCount(); direction++) {
+                int neighbor = grid.getNeighbor(cell, direction);
+                if (neighbor < 0 || labels[neighbor] == label || (only != ANY && labels[neighbor] != only)) {
+                    continue;
+                }
+                relabel(neighbor, label);
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                }
+                stack[top++] = neighbor;
+            }
+        }
+    }
+
+    private void relabel(int cell, int label) {
+        int old = labels[cell];
+        if (old != UNLABELED && --sizes[old] == 0) {
+            if (freeCount == freeLabels.length) {
+                freeLabels = Arrays.copyOf(freeLabels, freeCount * 2);
+            }
+            freeLabels[freeCount++] = old;
+        }
+        labels[cell] = label;
+        if (label != UNLABELED) {
+            sizes[label]++;
+        }
+    }
+
+    private int newLabel() {
+        if (freeCount > 0) {
+            return freeLabels[--freeCount];
+        }
+        if (nextLabel == sizes.length) {
+            sizes = Arrays.copyOf(sizes, nextLabel * 2);
+        }
+        return nextLabel++;
+    }
+
+    // Whether one move leads from a to b; walls are only checked on b, as in GridGraph.
+    private static boolean isMove(GridGraph grid, int a, int b) {
+        int dx = Math.abs(grid.getX(a) - grid.getX(b));
+        int dy = Math.abs(grid.getY(a) - grid.getY(b));
+        return dx <= 1 && dy <= 1 && (dx + dy == 1 || (dx + dy == 2 && grid.isAllowDiagonal()));
+    }
+
+    private static int root(int[] group, int i) {
+        while (group[i] != i) {
+            i = group[i];
+        }
+        return i;
+    }
+
+    private static int indexIn(int[] ring, int ringSize, int cell) {
+        for (int i = 0; i < ringSize; i++) {
+            if (ring[i] == cell) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
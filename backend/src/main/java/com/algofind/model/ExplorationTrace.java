@@ -0,0 +1,105 @@
+package com.algofind.model;
+
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingRequest.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Order in which a search visited cells. Cells are kept as int indices while the
+ * search runs and only turned into {@link Point}s for the response; a disabled trace
+ * just counts, so large maps don't hold a list of every visited cell. A streaming
+ * trace hands cells to a {@link Sink} in fixed-size chunks as they are visited and
+ * keeps nothing.
+ *
+ * <p>Requests can thin the trace out: {@code visitedStride} keeps every k-th visited
+ * cell and {@code visitedLimit} stops keeping cells after the first n. {@link #size()}
+ * still counts every cell.
+ */
+public final class ExplorationTrace {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * Receives visited cells while the search runs. The array is reused after the
+     * call returns.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(int[] cells, int count);
+    }
+
+    private final GridGraph grid;
+    private final Sink sink;
+    private final int stride;
+    private int[] cells;
+    private int buffered;
+    private int size;
+    private int untilNext = 1;
+    private int remaining;
+
+    private ExplorationTrace(GridGraph grid, PathfindingRequest request, int[] cells, Sink sink) {
+        this.grid = grid;
+        this.cells = cells;
+        this.sink = sink;
+        this.stride = request.getVisitedStride() != null ? request.getVisitedStride() : 1;
+        this.remaining = request.getVisitedLimit() != null ? request.getVisitedLimit() : Integer.MAX_VALUE;
+    }
+
+    public static ExplorationTrace forRequest(PathfindingRequest request, GridGraph grid) {
+        boolean enabled = request.shouldIncludeVisited() && !Integer.valueOf(0).equals(request.getVisitedLimit());
+        return new ExplorationTrace(grid, request, enabled ? new int[INITIAL_CAPACITY] : null, null);
+    }
+
+    public static ExplorationTrace streaming(PathfindingRequest request, GridGraph grid, int chunkSize, Sink sink) {
+        return new ExplorationTrace(grid, request, new int[chunkSize], sink);
+    }
+
+    public void record(int cell) {
+        size++;
+        if (cells == null || --untilNext > 0) {
+            return;
+        }
+        untilNext = stride;
+        if (remaining == 0) {
+            return;
+        }
+        remaining--;
+
+        if (buffered == cells.length) {
+            if (sink != null) {
+                flush();
+            } else {
+                cells = Arrays.copyOf(cells, buffered * 2);
+            }
+        }
+        cells[buffered++] = cell;
+    }
+
+    /**
+     * Passes any buffered cells to the sink; a no-op for non-streaming traces.
+     */
+    public void flush() {
+        if (sink != null && buffered > 0) {
+            sink.accept(cells, buffered);
+            buffered = 0;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<Point> toPoints() {
+        if (cells == null || sink != null) {
+            return null;
+        }
+        List<Point> points = new ArrayList<>(buffered);
+        for (int i = 0; i < buffered; i++) {
+            points.add(grid.toPoint(cells[i]));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,148 @@
+package com.algofind.model;
+
+import com.algofind.util.IndexedMinHeap;
+import com.algofind.util.PathUtils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Shortest-path tree towards one goal, from a single reverse Dijkstra over the whole
+ * grid. Each cell stores the direction of its next step towards the goal in the
+ * {@link PathUtils} link encoding, so a path from any start is read off in time
+ * proportional to its length.
+ */
+public final class FlowField {
+
+    private static final byte UNREACHED = -1;
+
+    private final GridGraph grid;
+    private final int goal;
+    private volatile byte[] next;
+    private int cellsSettled;
+
+    FlowField(GridGraph grid, int goal) {
+        this.grid = grid;
+        this.goal = goal;
+    }
+
+    /**
+     * True once the field is built; never waits for a build in progress.
+     */
+    public boolean isBuilt() {
+        return next != null;
+    }
+
+    /**
+     * Builds the field on first use; concurrent callers for the same goal wait for the
+     * one building it. Returns true if this call built it.
+     */
+    public synchronized boolean ensureBuilt(ExplorationTrace trace) {
+        if (next != null) {
+            return false;
+        }
+
+        byte[] links = new byte[grid.getCellCount()];
+        double[] distances = new double[grid.getCellCount()];
+        BitSet settled = new BitSet(grid.getCellCount());
+        IndexedMinHeap pq = new IndexedMinHeap(grid.getCellCount());
+        int[] neighbors = new int[GridGraph.MAX_NEIGHBORS];
+
+        Arrays.fill(links, UNREACHED);
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[goal] = 0.0;
+        links[goal] = PathUtils.NO_PARENT;
+        pq.insertOrDecrease(goal, 0.0);
+
+        while (!pq.isEmpty()) {
+            int cell = pq.poll();
+            settled.set(cell);
+            trace.record(cell);
+            cellsSettled++;
+            if (grid.isImpassable(cell)) {
+                // A goal on a wall cannot be entered from anywhere else.
+                break;
+            }
+
+            // Moves are reversible, so the neighbors of a cell are also the cells that
+            // can step into it; the cost is that of the move towards the goal.
+            int count = grid.getNeighbors(cell, settled, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                double distance = distances[cell] + grid.getMovementCost(neighbor, cell);
+                if (distance < distances[neighbor]) {
+                    distances[neighbor] = distance;
+                    links[neighbor] = PathUtils.link(grid, neighbor, cell);
+                    pq.insertOrDecrease(neighbor, distance);
+                }
+            }
+        }
+
+        next = links;
+        return true;
+    }
+
+    /**
+     * Returns the cells from {@code start} to the goal, or null when the goal cannot be
+     * reached. A start on a wall steps to whichever open neighbor is cheapest overall.
+     */
+    public int[] pathFrom(int start) {
+        int first = start;
+        if (start != goal && grid.isImpassable(start)) {
+            first = cheapestExit(start);
+            if (first < 0) {
+                return null;
+            }
+        } else if (next[start] == UNREACHED) {
+            return null;
+        }
+
+        int length = first == start ? 1 : 2;
+        for (int cell = first; cell != goal; cell = PathUtils.follow(grid, cell, next[cell])) {
+            length++;
+        }
+
+        int[] path = new int[length];
+        int i = 0;
+        path[i++] = start;
+        if (first != start) {
+            path[i++] = first;
+        }
+        for (int cell = first; cell != goal; ) {
+            cell = PathUtils.follow(grid, cell, next[cell]);
+            path[i++] = cell;
+        }
+        return path;
+    }
+
+    public int getCellsSettled() {
+        return cellsSettled;
+    }
+
+    private int cheapestExit(int start) {
+        int best = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int direction = 0; direction < grid.getDirectionCount(); direction++) {
+            int neighbor = grid.getNeighbor(start, direction);
+            if (neighbor < 0 || next[neighbor] == UNREACHED) {
+                continue;
+            }
+            double cost = grid.getMovementCost(start, neighbor) + costToGoal(neighbor);
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = neighbor;
+            }
+        }
+        return best;
+    }
+
+    private double costToGoal(int cell) {
+        double cost = 0;
+        while (cell != goal) {
+            int step = PathUtils.follow(grid, cell, next[cell]);
+            cost += grid.getMovementCost(cell, step);
+            cell = step;
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,42 @@
+package com.algofind.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The most recently used flow fields of a grid, keyed by goal cell. Each field holds a
+ * byte per cell, so fewer are kept on large grids. Any cell change can reroute every
+ * field, so the whole cache is dropped when the grid changes.
+ */
+public class FlowFieldCache implements GridDerivedData {
+
+    private static final int MAX_FIELDS = 16;
+    private static final long MAX_BYTES = 256L * 1024 * 1024;
+
+    private final GridGraph grid;
+    private final Map<Integer, FlowField> fields;
+
+    public FlowFieldCache(GridGraph grid) {
+        this.grid = grid;
+        int capacity = (int) Math.max(1, Math.min(MAX_FIELDS, MAX_BYTES / grid.getCellCount()));
+        this.fields = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, FlowField> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the field for {@code goal}, which the caller must build with
+     * {@link FlowField#ensureBuilt} before reading paths from it.
+     */
+    public synchronized FlowField get(int goal) {
+        return fields.computeIfAbsent(goal, key -> new FlowField(grid, key));
+    }
+
+    @Override
+    public boolean cellsChanged(GridGraph changed, int[] cells) {
+        return false;
+    }
+}
@@ -0,0 +1,14 @@
+package com.algofind.model;
+
+/**
+ * A structure precomputed from a {@link GridGraph} and cached on it, such as the
+ * HPA* abstract graph. The grid tells each cached structure when cells change.
+ */
+public interface GridDerivedData {
+
+    /**
+     * Brings this structure up to date after {@code cells} changed. Returning false
+     * drops it from the grid, and it is rebuilt from scratch the next time it is used.
+     */
+    boolean cellsChanged(GridGraph grid, int[] cells);
+}
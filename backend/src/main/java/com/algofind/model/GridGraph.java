@@ -1,105 +1,429 @@
 package com.algofind.model;
 
+import com.algofind.dto.MapUploadRequest;
 import com.algofind.dto.PathfindingRequest;
 import com.algofind.dto.PathfindingRequest.Point;
 
-import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 public class GridGraph {
 
-    private static final int[][] DIRECTIONS_4 = {
-        {0, 1}, {1, 0}, {0, -1}, {-1, 0}
-    };
-    private static final int[][] DIRECTIONS_8 = {
+    public static final int MAX_NEIGHBORS = 8;
+    // 10k x 10k; keeps every cell index an int and bounds per-search state.
+    public static final long MAX_CELLS = 100_000_000L;
+
+    // The first four entries are the orthogonal moves, so 4-connected grids
+    // simply iterate a prefix of this table.
+    static final int[][] DIRECTIONS = {
         {0, 1}, {1, 0}, {0, -1}, {-1, 0},
         {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
     };
-    private static final double SQRT2 = Math.sqrt(2);
+    static final double SQRT2 = Math.sqrt(2);
+    private static final int MAX_DISTINCT_WEIGHTS = 255;
 
-    private final int gridSize;
+    private final int width;
+    private final int height;
+    private final int cellCount;
     private final boolean allowDiagonal;
-    private final Map<Point, Double> barriers;
+    private final int directionCount;
+    private final BitSet walls;
+    // Weighted cells store a one-byte index into weightPalette (0 = unweighted), so a
+    // weighted map costs one byte per cell rather than a float. weightUses counts the
+    // cells of each class, and a class no cell uses is free for another weight. All
+    // three are allocated lazily and stay null for unweighted grids.
+    private byte[] weightClasses;
+    private float[] weightPalette;
+    private int[] weightUses;
+    private int weightedCells;
+    private final Map<Class<?>, GridDerivedData> derivedData = new ConcurrentHashMap<>();
+    // XOR of a hash of every wall and weighted cell, kept up to date as cells change.
+    private long fingerprint;
 
-    public GridGraph(int gridSize, List<Point> barrierList, boolean allowDiagonal) {
-        this.gridSize = gridSize;
+    public GridGraph(int width, int height, List<Point> barrierList, boolean allowDiagonal) {
+        if ((long) width * height > MAX_CELLS) {
+            throw new IllegalArgumentException("Grid of " + width + "x" + height + " exceeds " + MAX_CELLS + " cells");
+        }
+        this.width = width;
+        this.height = height;
+        this.cellCount = width * height;
         this.allowDiagonal = allowDiagonal;
-        this.barriers = new HashMap<>();
+        this.directionCount = allowDiagonal ? 8 : 4;
+        this.walls = new BitSet(cellCount);
         if (barrierList != null) {
             for (Point barrier : barrierList) {
-                this.barriers.put(barrier, barrier.getWeight());
+                if (isInBounds(barrier.getX(), barrier.getY())) {
+                    setBarrier(indexOf(barrier.getX(), barrier.getY()), barrier.getWeight());
+                }
             }
         }
     }
 
-    public static GridGraph from(PathfindingRequest request) {
-        return new GridGraph(
-            request.getGridSize(),
-            request.getBarriers(),
-            request.isAllowDiagonal()
-        );
+    public GridGraph(int gridSize, List<Point> barrierList, boolean allowDiagonal) {
+        this(gridSize, gridSize, barrierList, allowDiagonal);
+    }
+
+    /**
+     * Builds a grid from cell data that is already decoded: {@code weightClasses[cell]}
+     * is 0 for unweighted cells and otherwise a 1-based index into {@code weights}.
+     * Walls take precedence over weights, which must be positive and finite. Both
+     * weight arrays may be null.
+     */
+    public static GridGraph fromCells(int width, int height, boolean allowDiagonal,
+                                      BitSet walls, byte[] weightClasses, float[] weights) {
+        GridGraph grid = new GridGraph(width, height, null, allowDiagonal);
+        grid.walls.or(walls);
+        if (weights != null && weights.length > 0) {
+            if (weights.length > MAX_DISTINCT_WEIGHTS) {
+                throw new IllegalArgumentException("At most " + MAX_DISTINCT_WEIGHTS + " distinct barrier weights are supported");
+            }
+            for (float weight : weights) {
+                if (!(weight > 0) || Float.isInfinite(weight)) {
+                    throw new IllegalArgumentException("Weights must be positive and finite, got " + weight);
+                }
+            }
+            grid.weightClasses = weightClasses;
+            grid.weightPalette = new float[MAX_DISTINCT_WEIGHTS + 1];
+            grid.weightUses = new int[MAX_DISTINCT_WEIGHTS + 1];
+            System.arraycopy(weights, 0, grid.weightPalette, 1, weights.length);
+            for (int cell = walls.nextSetBit(0); cell >= 0; cell = walls.nextSetBit(cell + 1)) {
+                weightClasses[cell] = 0;
+            }
+            for (int cell = 0; cell < grid.cellCount; cell++) {
+                if (weightClasses[cell] != 0) {
+                    grid.weightUses[weightClasses[cell] & 0xFF]++;
+                    grid.weightedCells++;
+                    grid.fingerprint ^= grid.cellHash(cell);
+                }
+            }
+        }
+        for (int cell = walls.nextSetBit(0); cell >= 0; cell = walls.nextSetBit(cell + 1)) {
+            grid.fingerprint ^= grid.cellHash(cell);
+        }
+        return grid;
     }
 
-    public List<Point> getNeighbors(Point current, Set<Point> excluded) {
-        List<Point> neighbors = new ArrayList<>();
-        int[][] directions = allowDiagonal ? DIRECTIONS_8 : DIRECTIONS_4;
+    public static GridGraph from(PathfindingRequest request) {
+        if (request.getGrid() != null) {
+            return request.getGrid();
+        }
+        return from(request.getGridSize(), request.getWidth(), request.getHeight(),
+            request.getBarriers(), request.isAllowDiagonal());
+    }
 
-        for (int[] direction : directions) {
-            int newX = current.getX() + direction[0];
-            int newY = current.getY() + direction[1];
+    public static GridGraph from(MapUploadRequest request) {
+        return from(request.getGridSize(), request.getWidth(), request.getHeight(),
+            request.getBarriers(), request.isAllowDiagonal());
+    }
 
-            if (!isInBounds(newX, newY)) {
-                continue;
+    private static GridGraph from(Integer gridSize, Integer width, Integer height,
+                                  List<Point> barriers, boolean allowDiagonal) {
+        if (width != null || height != null) {
+            if (width == null || height == null) {
+                throw new IllegalArgumentException("width and height must be given together");
             }
+            return new GridGraph(width, height, barriers, allowDiagonal);
+        }
+
+        if (gridSize == null) {
+            throw new IllegalArgumentException("gridSize or width and height is required");
+        }
+        return new GridGraph(gridSize, barriers, allowDiagonal);
+    }
 
-            Point neighbor = new Point(newX, newY);
+    /**
+     * Writes the passable, non-excluded neighbors of {@code cell} into {@code buffer}
+     * (which must hold at least {@link #MAX_NEIGHBORS} entries) and returns how many
+     * were written.
+     */
+    public int getNeighbors(int cell, BitSet excluded, int[] buffer) {
+        int count = 0;
+        for (int direction = 0; direction < directionCount; direction++) {
+            int neighbor = getNeighbor(cell, direction);
 
-            if (isImpassable(neighbor)) {
+            if (neighbor < 0) {
                 continue;
             }
 
-            if (excluded != null && excluded.contains(neighbor)) {
+            if (excluded != null && excluded.get(neighbor)) {
                 continue;
             }
 
-            neighbors.add(neighbor);
+            buffer[count++] = neighbor;
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the neighbor of {@code cell} in the given direction, or {@code -1} when
+     * it is outside the grid or a wall.
+     */
+    public int getNeighbor(int cell, int direction) {
+        int y = cell / width;
+        int newX = cell - y * width + DIRECTIONS[direction][0];
+        int newY = y + DIRECTIONS[direction][1];
+
+        if (!isInBounds(newX, newY)) {
+            return -1;
         }
 
-        return neighbors;
+        int neighbor = newY * width + newX;
+        return walls.get(neighbor) ? -1 : neighbor;
+    }
+
+    public int getDirectionCount() {
+        return directionCount;
     }
 
-    public double getMovementCost(Point from, Point to) {
+    public double getMovementCost(int from, int to) {
         double baseCost = isDiagonalMove(from, to) ? SQRT2 : 1.0;
+        return baseCost + getEntryCost(to);
+    }
+
+    /**
+     * The weight paid on top of the move itself for entering {@code cell}.
+     */
+    public double getEntryCost(int cell) {
+        if (weightClasses != null && weightClasses[cell] != 0) {
+            return weightPalette[weightClasses[cell] & 0xFF];
+        }
+        return 0;
+    }
+
+    /**
+     * Octile (or Manhattan, without diagonals) distance: the cost of the cheapest
+     * possible move sequence between two cells, ignoring walls and weights.
+     */
+    public double estimateCost(int from, int to) {
+        int dx = Math.abs(getX(from) - getX(to));
+        int dy = Math.abs(getY(from) - getY(to));
+
+        if (allowDiagonal) {
+            return dx + dy + (SQRT2 - 2) * Math.min(dx, dy);
+        } else {
+            return dx + dy;
+        }
+    }
+
+    public int indexOf(int x, int y) {
+        return y * width + x;
+    }
+
+    public int indexOf(Point point) {
+        return checkedIndexOf(point.getX(), point.getY());
+    }
+
+    public int getX(int cell) {
+        return cell % width;
+    }
+
+    public int getY(int cell) {
+        return cell / width;
+    }
+
+    public Point toPoint(int cell) {
+        return new Point(getX(cell), getY(cell));
+    }
 
-        Double weight = barriers.get(to);
-        if (weight != null && weight > 0) {
-            baseCost += weight;
+    public boolean isImpassable(int cell) {
+        return walls.get(cell);
+    }
+
+    public boolean isPassable(int x, int y) {
+        return isInBounds(x, y) && !walls.get(y * width + x);
+    }
+
+    /**
+     * Returns the cached structure of the given type, building it on first use.
+     */
+    public <T extends GridDerivedData> T getDerived(Class<T> type, Function<GridGraph, T> factory) {
+        return type.cast(derivedData.computeIfAbsent(type, key -> factory.apply(this)));
+    }
+
+    /**
+     * Returns the cached structure of the given type, or null if it has not been built.
+     */
+    public <T extends GridDerivedData> T getDerivedIfPresent(Class<T> type) {
+        return type.cast(derivedData.get(type));
+    }
+
+    /**
+     * Sets a cell with the same meaning as a request barrier: a weight of zero or less is
+     * a wall, a positive weight is an extra cost for entering the cell. Callers must
+     * report the changed cells through {@link #cellsChanged(int[])} once done.
+     */
+    public void setBarrier(int x, int y, double weight) {
+        setBarrier(checkedIndexOf(x, y), weight);
+    }
+
+    public void clearBarrier(int x, int y) {
+        int cell = checkedIndexOf(x, y);
+        fingerprint ^= cellHash(cell);
+        walls.clear(cell);
+        releaseWeight(cell);
+    }
+
+    /**
+     * Throws an IllegalArgumentException if setting {@code barriers} one after another,
+     * as {@link #setBarrier(int, int, double)} does, would at some point need more
+     * distinct weights than the grid can hold, or if any of them is outside the grid.
+     * Changes nothing, so a batch of edits can be checked before any is applied.
+     */
+    public void checkBarriers(List<Point> barriers) {
+        float[] palette = weightPalette != null ? weightPalette.clone() : new float[MAX_DISTINCT_WEIGHTS + 1];
+        int[] uses = weightUses != null ? weightUses.clone() : new int[MAX_DISTINCT_WEIGHTS + 1];
+        // Class of every cell set so far, where it differs from weightClasses.
+        Map<Integer, Integer> classes = new HashMap<>();
+        for (Point barrier : barriers) {
+            int cell = checkedIndexOf(barrier.getX(), barrier.getY());
+            int oldClass = classes.getOrDefault(cell, weightClasses != null ? weightClasses[cell] & 0xFF : 0);
+            if (oldClass != 0) {
+                uses[oldClass]--;
+            }
+            int newClass = barrier.getWeight() > 0 ? weightClassOf((float) barrier.getWeight(), palette, uses) : 0;
+            if (newClass != 0) {
+                uses[newClass]++;
+            }
+            classes.put(cell, newClass);
+        }
+    }
+
+    /**
+     * A 64-bit hash of which cells are walls and what every weighted cell weighs,
+     * updated in constant time per changed cell. Equal grids of the same size have
+     * equal fingerprints.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public void cellsChanged(int[] cells) {
+        derivedData.values().removeIf(data -> !data.cellsChanged(this, cells));
+    }
+
+    public boolean hasWeights() {
+        return weightedCells > 0;
+    }
+
+    /**
+     * The cost of the dearest single move when every move costs a whole number, as on
+     * grids without diagonal moves whose weights are all whole numbers; otherwise -1.
+     */
+    public int getMaxIntegerMoveCost() {
+        if (allowDiagonal) {
+            return -1;
+        }
+        int max = 1;
+        for (int i = 1; weightUses != null && i <= MAX_DISTINCT_WEIGHTS; i++) {
+            if (weightUses[i] == 0) {
+                continue;
+            }
+            float weight = weightPalette[i];
+            if (weight != Math.rint(weight) || weight >= Integer.MAX_VALUE) {
+                return -1;
+            }
+            max = Math.max(max, 1 + (int) weight);
         }
+        return max;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
 
-        return baseCost;
+    public int getWidth() {
+        return width;
     }
 
-    public int getGridSize() {
-        return gridSize;
+    public int getHeight() {
+        return height;
     }
 
     public boolean isAllowDiagonal() {
         return allowDiagonal;
     }
 
-    private boolean isInBounds(int x, int y) {
-        return x >= 0 && x < gridSize && y >= 0 && y < gridSize;
+    private void setBarrier(int cell, double weight) {
+        fingerprint ^= cellHash(cell);
+        // Released first, so a cell that held the last use of a weight frees its class.
+        releaseWeight(cell);
+        if (weight <= 0) {
+            walls.set(cell);
+        } else {
+            walls.clear(cell);
+            if (weightClasses == null) {
+                weightClasses = new byte[cellCount];
+                weightPalette = new float[MAX_DISTINCT_WEIGHTS + 1];
+                weightUses = new int[MAX_DISTINCT_WEIGHTS + 1];
+            }
+            int weightClass = weightClassOf((float) weight, weightPalette, weightUses);
+            weightClasses[cell] = (byte) weightClass;
+            weightUses[weightClass]++;
+            weightedCells++;
+        }
+        fingerprint ^= cellHash(cell);
+    }
+
+    private void releaseWeight(int cell) {
+        if (weightClasses != null && weightClasses[cell] != 0) {
+            weightUses[weightClasses[cell] & 0xFF]--;
+            weightedCells--;
+            weightClasses[cell] = 0;
+        }
     }
 
-    private boolean isImpassable(Point p) {
-        Double weight = barriers.get(p);
-        return weight != null && weight <= 0;
+    // Open cells hash to zero, so the fingerprint only depends on barrier cells.
+    private long cellHash(int cell) {
+        long state;
+        if (walls.get(cell)) {
+            state = -1L;
+        } else if (weightClasses != null && weightClasses[cell] != 0) {
+            state = Float.floatToIntBits(weightPalette[weightClasses[cell] & 0xFF]);
+        } else {
+            return 0;
+        }
+        long z = cell * 0x9E3779B97F4A7C15L + state;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // The class in use for weight, or else the first free one, which is given weight.
+    private static int weightClassOf(float weight, float[] palette, int[] uses) {
+        int free = 0;
+        for (int i = 1; i <= MAX_DISTINCT_WEIGHTS; i++) {
+            if (uses[i] == 0) {
+                if (free == 0) {
+                    free = i;
+                }
+            } else if (palette[i] == weight) {
+                return i;
+            }
+        }
+        if (free == 0) {
+            throw new IllegalArgumentException("At most " + MAX_DISTINCT_WEIGHTS + " distinct barrier weights are supported");
+        }
+        palette[free] = weight;
+        return free;
+    }
+
+    private int checkedIndexOf(int x, int y) {
+        if (!isInBounds(x, y)) {
+            throw new IllegalArgumentException("Point (" + x + ", " + y + ") is outside the grid");
+        }
+        return indexOf(x, y);
+    }
+
+    private boolean isInBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
     }
 
-    private boolean isDiagonalMove(Point from, Point to) {
-        return from.getX() != to.getX() && from.getY() != to.getY();
+    private boolean isDiagonalMove(int from, int to) {
+        return getX(from) != getX(to) && getY(from) != getY(to);
     }
 }
@@ -0,0 +1,444 @@
+package com.algofind.model;
+
+import com.algofind.util.IndexedMinHeap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * HPA* abstract graph. The grid is cut into square clusters; wherever two neighboring
+ * clusters touch through open cells, one or two transition pairs are placed on each
+ * run of open border cells (the entrances). Each cluster stores the cost between every
+ * pair of its entrances, computed with a Dijkstra confined to the cluster.
+ *
+ * <p>A query connects start and goal to the entrances of their clusters, runs A* over
+ * this small graph and refines each abstract edge with another cluster-local search.
+ * Paths only cross between clusters at transitions, so they are near-optimal rather
+ * than optimal. When cells change, only the clusters that own or border them are
+ * rebuilt.
+ */
+public class HierarchicalGraph implements GridDerivedData {
+
+    private static final int SMALL_CLUSTER = 16;
+    private static final int LARGE_CLUSTER = 32;
+    private static final int LARGE_MAP_CELLS = 1 << 20;
+    // Runs of open border cells at least this long get a transition at each end
+    // instead of one in the middle.
+    private static final int LONG_ENTRANCE = 6;
+    private static final int START = -1;
+    private static final int GOAL = -2;
+
+    private final GridGraph grid;
+    private final int clusterSize;
+    private final int clustersX;
+    private final int clustersY;
+    private final Cluster[] clusters;
+
+    private static final class Cluster {
+        final int[] entrances;
+        final int[][] partners;
+        // Row-major entrances.length^2 matrix; distances[i * n + j] is the cost from
+        // entrance i to entrance j without leaving the cluster.
+        final double[] distances;
+
+        Cluster(int[] entrances, int[][] partners, double[] distances) {
+            this.entrances = entrances;
+            this.partners = partners;
+            this.distances = distances;
+        }
+
+        int indexOf(int cell) {
+            for (int i = 0; i < entrances.length; i++) {
+                if (entrances[i] == cell) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Result of a query: the full cell path (null when none was found) and how many
+     * nodes the abstract and local searches expanded.
+     */
+    public record Route(int[] cells, int nodesExpanded, int[] abstractNodesVisited) {}
+
+    public HierarchicalGraph(GridGraph grid) {
+        this.grid = grid;
+        this.clusterSize = grid.getCellCount() > LARGE_MAP_CELLS ? LARGE_CLUSTER : SMALL_CLUSTER;
+        this.clustersX = (grid.getWidth() + clusterSize - 1) / clusterSize;
+        this.clustersY = (grid.getHeight() + clusterSize - 1) / clusterSize;
+        this.clusters = new Cluster[clustersX * clustersY];
+
+        // Built on the calling search thread, so the work stays within the bounded
+        // search executor rather than spilling onto the common pool.
+        LocalSearch search = new LocalSearch();
+        for (int cluster = 0; cluster < clusters.length; cluster++) {
+            clusters[cluster] = buildCluster(cluster, search);
+        }
+    }
+
+    @Override
+    public boolean cellsChanged(GridGraph changed, int[] cells) {
+        BitSet affected = new BitSet(clusters.length);
+        for (int cell : cells) {
+            int x = grid.getX(cell);
+            int y = grid.getY(cell);
+            int cx = x / clusterSize;
+            int cy = y / clusterSize;
+            affected.set(cy * clustersX + cx);
+            // A border cell also changes the entrances of the cluster on the other side.
+            if (x % clusterSize == 0 && cx > 0) affected.set(cy * clustersX + cx - 1);
+            if (x % clusterSize == clusterSize - 1 && cx < clustersX - 1) affected.set(cy * clustersX + cx + 1);
+            if (y % clusterSize == 0 && cy > 0) affected.set((cy - 1) * clustersX + cx);
+            if (y % clusterSize == clusterSize - 1 && cy < clustersY - 1) affected.set((cy + 1) * clustersX + cx);
+        }
+
+        LocalSearch search = new LocalSearch();
+        for (int cluster = affected.nextSetBit(0); cluster >= 0; cluster = affected.nextSetBit(cluster + 1)) {
+            clusters[cluster] = buildCluster(cluster, search);
+        }
+        return true;
+    }
+
+    /**
+     * Finds a path from start to end, or returns a route without cells when the abstract
+     * graph does not connect them. When {@code budget} runs out the route holds the path
+     * to the visited abstract node closest to the end instead. The budget is checked
+     * between abstract nodes only, so the searches inside a cluster always finish and
+     * can take nodesExpanded past the node limit.
+     */
+    public Route findPath(int start, int end, SearchBudget budget) {
+        if (start == end) {
+            return new Route(new int[] {start}, 1, new int[] {start});
+        }
+
+        LocalSearch search = new LocalSearch();
+        int startCluster = clusterOf(start);
+        int goalCluster = clusterOf(end);
+        Cluster startNodes = clusters[startCluster];
+        Cluster goalNodes = clusters[goalCluster];
+        int expanded = 0;
+
+        search.run(startCluster, start, false, -1);
+        expanded += search.expanded;
+        double[] startCosts = search.costsTo(startNodes.entrances);
+        double direct = startCluster == goalCluster ? search.costTo(end) : Double.POSITIVE_INFINITY;
+
+        search.run(goalCluster, end, true, -1);
+        expanded += search.expanded;
+        double[] goalCosts = search.costsTo(goalNodes.entrances);
+
+        Map<Integer, Double> gScore = new HashMap<>();
+        Map<Integer, Integer> parent = new HashMap<>();
+        // Entries are {f, node, g}; an entry whose g is above the best known one is stale.
+        PriorityQueue<double[]> open = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        List<Integer> visited = new ArrayList<>();
+
+        gScore.put(START, 0.0);
+        open.add(new double[] {grid.estimateCost(start, end), START, 0.0});
+
+        while (!open.isEmpty()) {
+            if (budget.isExhausted(expanded, open.size())) {
+                int closest = start;
+                for (int node : visited) {
+                    if (grid.estimateCost(node, end) < grid.estimateCost(closest, end)) {
+                        closest = node;
+                    }
+                }
+                int[] cells = closest == start ? new int[] {start} : refine(abstractPath(parent, closest, start, end), search);
+                expanded += search.totalExpanded;
+                return new Route(cells, expanded, visited.stream().mapToInt(Integer::intValue).toArray());
+            }
+
+            double[] entry = open.poll();
+            int node = (int) entry[1];
+            double g = entry[2];
+            if (g > gScore.get(node)) {
+                continue;
+            }
+            expanded++;
+
+            if (node == GOAL) {
+                budget.searchEnded();
+                int[] abstractPath = abstractPath(parent, GOAL, start, end);
+                int[] cells = refine(abstractPath, search);
+                expanded += search.totalExpanded;
+                return new Route(cells, expanded, visited.stream().mapToInt(Integer::intValue).toArray());
+            }
+
+            if (node == START) {
+                visited.add(start);
+                for (int i = 0; i < startNodes.entrances.length; i++) {
+                    relax(startNodes.entrances[i], node, g + startCosts[i], end, gScore, parent, open);
+                }
+                relax(GOAL, node, g + direct, end, gScore, parent, open);
+                continue;
+            }
+
+            visited.add(node);
+            int clusterIndex = clusterOf(node);
+            Cluster cluster = clusters[clusterIndex];
+            int k = cluster.indexOf(node);
+            int n = cluster.entrances.length;
+            for (int j = 0; j < n; j++) {
+                if (j != k) {
+                    relax(cluster.entrances[j], node, g + cluster.distances[k * n + j], end, gScore, parent, open);
+                }
+            }
+            for (int partner : cluster.partners[k]) {
+                relax(partner, node, g + grid.getMovementCost(node, partner), end, gScore, parent, open);
+            }
+            if (clusterIndex == goalCluster) {
+                relax(GOAL, node, g + goalCosts[k], end, gScore, parent, open);
+            }
+        }
+
+        return new Route(null, expanded, visited.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    private void relax(int node, int from, double cost, int end,
+                       Map<Integer, Double> gScore, Map<Integer, Integer> parent, PriorityQueue<double[]> open) {
+        if (cost == Double.POSITIVE_INFINITY) {
+            return;
+        }
+        Double known = gScore.get(node);
+        if (known == null || cost < known) {
+            gScore.put(node, cost);
+            parent.put(node, from);
+            open.add(new double[] {cost + heuristic(node, end), node, cost});
+        }
+    }
+
+    private double heuristic(int node, int end) {
+        return node == GOAL ? 0 : grid.estimateCost(node, end);
+    }
+
+    private int[] abstractPath(Map<Integer, Integer> parent, int last, int start, int end) {
+        List<Integer> nodes = new ArrayList<>();
+        for (Integer node = last; node != null; node = parent.get(node)) {
+            nodes.add(node == GOAL ? end : node == START ? start : node);
+        }
+        int[] path = new int[nodes.size()];
+        for (int i = 0; i < path.length; i++) {
+            path[i] = nodes.get(path.length - 1 - i);
+        }
+        return path;
+    }
+
+    // Consecutive abstract nodes either straddle a border (one step) or share a
+    // cluster, in which case the cells between them come from a local search.
+    private int[] refine(int[] abstractPath, LocalSearch search) {
+        search.totalExpanded = 0;
+        int[] cells = new int[16];
+        int size = 0;
+        cells[size++] = abstractPath[0];
+
+        for (int i = 1; i < abstractPath.length; i++) {
+            int from = abstractPath[i - 1];
+            int to = abstractPath[i];
+            if (from == to) {
+                continue;
+            }
+            int cluster = clusterOf(from);
+            int[] segment;
+            if (cluster != clusterOf(to)) {
+                segment = new int[] {to};
+            } else {
+                search.run(cluster, from, false, to);
+                search.totalExpanded += search.expanded;
+                segment = search.pathTo(to);
+            }
+            if (size + segment.length > cells.length) {
+                cells = Arrays.copyOf(cells, Math.max(cells.length * 2, size + segment.length));
+            }
+            System.arraycopy(segment, 0, cells, size, segment.length);
+            size += segment.length;
+        }
+
+        return Arrays.copyOf(cells, size);
+    }
+
+    private int clusterOf(int cell) {
+        return (grid.getY(cell) / clusterSize) * clustersX + grid.getX(cell) / clusterSize;
+    }
+
+    private Cluster buildCluster(int cluster, LocalSearch search) {
+        int cx = cluster % clustersX;
+        int cy = cluster / clustersX;
+        int x0 = cx * clusterSize;
+        int y0 = cy * clusterSize;
+        int x1 = Math.min(x0 + clusterSize, grid.getWidth());
+        int y1 = Math.min(y0 + clusterSize, grid.getHeight());
+
+        Map<Integer, List<Integer>> transitions = new LinkedHashMap<>();
+        if (cy > 0) scanBorder(transitions, x0, y0, 1, 0, x1 - x0, 0, -1);
+        if (cy < clustersY - 1) scanBorder(transitions, x0, y1 - 1, 1, 0, x1 - x0, 0, 1);
+        if (cx > 0) scanBorder(transitions, x0, y0, 0, 1, y1 - y0, -1, 0);
+        if (cx < clustersX - 1) scanBorder(transitions, x1 - 1, y0, 0, 1, y1 - y0, 1, 0);
+
+        int n = transitions.size();
+        int[] entrances = new int[n];
+        int[][] partners = new int[n][];
+        int i = 0;
+        for (Map.Entry<Integer, List<Integer>> entry : transitions.entrySet()) {
+            entrances[i] = entry.getKey();
+            partners[i] = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+            i++;
+        }
+
+        // Moves cost the same both ways except for the weight of the cell entered, so
+        // cost(j -> i) is cost(i -> j) with the weight of j swapped for that of i, and
+        // one search per entrance fills both halves of the matrix.
+        double[] distances = new double[n * n];
+        for (i = 0; i < n - 1; i++) {
+            search.run(cluster, entrances[i], false, -1);
+            for (int j = i + 1; j < n; j++) {
+                double cost = search.costTo(entrances[j]);
+                distances[i * n + j] = cost;
+                distances[j * n + i] = cost - grid.getEntryCost(entrances[j]) + grid.getEntryCost(entrances[i]);
+            }
+        }
+
+        return new Cluster(entrances, partners, distances);
+    }
+
+    // Walks one side of a cluster from (x, y) in steps of (stepX, stepY); (outX, outY)
+    // points across the border. Both clusters sharing a border scan it in the same
+    // order, so they agree on where its transitions are.
+    private void scanBorder(Map<Integer, List<Integer>> transitions, int x, int y,
+                            int stepX, int stepY, int length, int outX, int outY) {
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean open = i < length
+                && grid.isPassable(x + i * stepX, y + i * stepY)
+                && grid.isPassable(x + i * stepX + outX, y + i * stepY + outY);
+            if (open && runStart < 0) {
+                runStart = i;
+            } else if (!open && runStart >= 0) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 >= LONG_ENTRANCE) {
+                    addTransition(transitions, x + runStart * stepX, y + runStart * stepY, outX, outY);
+                    addTransition(transitions, x + runEnd * stepX, y + runEnd * stepY, outX, outY);
+                } else {
+                    int middle = (runStart + runEnd) / 2;
+                    addTransition(transitions, x + middle * stepX, y + middle * stepY, outX, outY);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    private void addTransition(Map<Integer, List<Integer>> transitions, int x, int y, int outX, int outY) {
+        transitions.computeIfAbsent(grid.indexOf(x, y), key -> new ArrayList<>())
+            .add(grid.indexOf(x + outX, y + outY));
+    }
+
+    /**
+     * Dijkstra confined to one cluster, indexed by cell position inside the cluster.
+     * A reverse run computes costs to the source instead of from it.
+     */
+    private final class LocalSearch {
+        private final double[] costs = new double[clusterSize * clusterSize];
+        private final int[] parents = new int[clusterSize * clusterSize];
+        private final IndexedMinHeap heap = new IndexedMinHeap(clusterSize * clusterSize);
+        private int x0;
+        private int y0;
+        private int width;
+        private int height;
+        private int expanded;
+        private int totalExpanded;
+
+        void run(int cluster, int source, boolean reverse, int target) {
+            x0 = (cluster % clustersX) * clusterSize;
+            y0 = (cluster / clustersX) * clusterSize;
+            width = Math.min(clusterSize, grid.getWidth() - x0);
+            height = Math.min(clusterSize, grid.getHeight() - y0);
+            expanded = 0;
+            Arrays.fill(costs, Double.POSITIVE_INFINITY);
+            heap.clear();
+
+            int sourceLocal = local(source);
+            costs[sourceLocal] = 0;
+            parents[sourceLocal] = -1;
+            heap.insertOrDecrease(sourceLocal, 0);
+
+            while (!heap.isEmpty()) {
+                int current = heap.poll();
+                expanded++;
+                int cell = global(current);
+                if (cell == target) {
+                    return;
+                }
+
+                int x = current % clusterSize;
+                int y = current / clusterSize;
+                for (int direction = 0; direction < grid.getDirectionCount(); direction++) {
+                    int nx = x + GridGraph.DIRECTIONS[direction][0];
+                    int ny = y + GridGraph.DIRECTIONS[direction][1];
+                    if (nx < 0 || nx >= width || ny < 0 || ny >= height) {
+                        continue;
+                    }
+                    int neighbor = grid.indexOf(x0 + nx, y0 + ny);
+                    if (grid.isImpassable(neighbor)) {
+                        continue;
+                    }
+                    int next = ny * clusterSize + nx;
+                    double step = (direction < 4 ? 1.0 : GridGraph.SQRT2)
+                        + grid.getEntryCost(reverse ? cell : neighbor);
+                    double cost = costs[current] + step;
+                    if (cost < costs[next]) {
+                        costs[next] = cost;
+                        parents[next] = current;
+                        heap.insertOrDecrease(next, cost);
+                    }
+                }
+            }
+        }
+
+        double costTo(int cell) {
+            return costs[local(cell)];
+        }
+
+        double[] costsTo(int[] cells) {
+            double[] result = new double[cells.length];
+            for (int i = 0; i < cells.length; i++) {
+                result[i] = costTo(cells[i]);
+            }
+            return result;
+        }
+
+        // Cells after the source up to and including target, from the last forward run.
+        int[] pathTo(int target) {
+            int length = 0;
+            for (int current = local(target); parents[current] >= 0; current = parents[current]) {
+                length++;
+            }
+            int[] path = new int[length];
+            int current = local(target);
+            for (int i = length - 1; i >= 0; i--) {
+                path[i] = global(current);
+                current = parents[current];
+            }
+            return path;
+        }
+
+        private int local(int cell) {
+            return (grid.getY(cell) - y0) * clusterSize + grid.getX(cell) - x0;
+        }
+
+        private int global(int local) {
+            return grid.indexOf(x0 + local % clusterSize, y0 + local / clusterSize);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.algofind.model;
+
+import com.algofind.util.IndexedMinHeap;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Exact costs from a few landmark cells to every cell, for the ALT heuristic: by the
+ * triangle inequality, the difference between the costs of two cells from a landmark
+ * is a lower bound on the cost between them. On weighted and maze-like maps, where
+ * octile distance badly underestimates, this bound is far tighter.
+ *
+ * <p>Landmarks are picked farthest-first within the largest connected component: each
+ * is the cell costliest to get to from the landmarks already chosen, which spreads
+ * them around the edges of the map. Costs are stored as floats, four bytes per cell
+ * and landmark, and fewer landmarks are kept on large grids. Any cell change can alter every cost, so the
+ * table is dropped when the grid changes and rebuilt on next use.
+ */
+public final class LandmarkTable implements GridDerivedData {
+
+    private static final int MAX_LANDMARKS = 8;
+    private static final long MAX_BYTES = 256L * 1024 * 1024;
+    // Covers float rounding of both costs, so the bound never overestimates.
+    private static final double ROUNDING_SLACK = 1e-6;
+
+    private final int[] landmarks;
+    private final float[][] costs;
+
+    public LandmarkTable(GridGraph grid) {
+        int cellCount = grid.getCellCount();
+        int wanted = (int) Math.min(MAX_LANDMARKS, MAX_BYTES / (4L * cellCount));
+
+        // Starting from a walled-in pocket would put every landmark in it.
+        int seed = -1;
+        if (wanted > 0) {
+            ConnectedComponents components = grid.getDerivedIfPresent(ConnectedComponents.class);
+            seed = (components != null ? components : new ConnectedComponents(grid)).cellOfLargestComponent();
+        }
+        if (seed < 0) {
+            this.landmarks = new int[0];
+            this.costs = new float[0][];
+            return;
+        }
+
+        double[] distances = new double[cellCount];
+        IndexedMinHeap queue = new IndexedMinHeap(cellCount);
+        int[] neighbors = new int[GridGraph.MAX_NEIGHBORS];
+
+        // Costs from the seed, only to find the first landmark; after
+        // that, the smallest cost from any landmark so far.
+        double[] nearest = new double[cellCount];
+        computeCosts(grid, seed, distances, queue, neighbors);
+        System.arraycopy(distances, 0, nearest, 0, cellCount);
+
+        int[] chosen = new int[wanted];
+        float[][] tables = new float[wanted][];
+        int count = 0;
+        while (count < wanted) {
+            int landmark = farthest(nearest);
+            if (landmark < 0) {
+                break;
+            }
+            computeCosts(grid, landmark, distances, queue, neighbors);
+            float[] table = new float[cellCount];
+            for (int cell = 0; cell < cellCount; cell++) {
+                table[cell] = (float) distances[cell];
+                if (count == 0 || distances[cell] < nearest[cell]) {
+                    nearest[cell] = distances[cell];
+                }
+            }
+            chosen[count] = landmark;
+            tables[count++] = table;
+        }
+        this.landmarks = Arrays.copyOf(chosen, count);
+        this.costs = Arrays.copyOf(tables, count);
+    }
+
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * A lower bound on the cost from any cell to {@code end}: the best of octile
+     * distance and, for each landmark that reaches both cells, the triangle bounds
+     * through it.
+     */
+    public IntToDoubleFunction heuristicTo(GridGraph grid, int end) {
+        int count = landmarks.length;
+        double[] toEnd = new double[count];
+        for (int i = 0; i < count; i++) {
+            toEnd[i] = costs[i][end];
+        }
+        double endEntry = grid.getEntryCost(end);
+
+        return cell -> {
+            double best = grid.estimateCost(cell, end);
+            // Moves are reversible and differ only in the entry cost paid at the far
+            // end, so cost(v, L) = cost(L, v) + entry(L) - entry(v), and likewise for
+            // end; the landmark's own entry cost cancels out.
+            double entryDifference = endEntry - grid.getEntryCost(cell);
+            for (int i = 0; i < count; i++) {
+                double fromLandmark = costs[i][cell];
+                if (fromLandmark == Double.POSITIVE_INFINITY || toEnd[i] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                double bound = Math.max(toEnd[i] - fromLandmark, fromLandmark - toEnd[i] + entryDifference)
+                    - ROUNDING_SLACK * (fromLandmark + toEnd[i]);
+                if (bound > best) {
+                    best = bound;
+                }
+            }
+            return best;
+        };
+    }
+
+    @Override
+    public boolean cellsChanged(GridGraph grid, int[] cells) {
+        return false;
+    }
+
+    private static void computeCosts(GridGraph grid, int source, double[] distances, IndexedMinHeap queue,
+                                     int[] neighbors) {
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[source] = 0.0;
+        queue.clear();
+        queue.insertOrDecrease(source, 0.0);
+
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            int count = grid.getNeighbors(cell, null, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                double distance = distances[cell] + grid.getMovementCost(cell, neighbor);
+                if (distance < distances[neighbor]) {
+                    distances[neighbor] = distance;
+                    queue.insertOrDecrease(neighbor, distance);
+                }
+            }
+        }
+    }
+
+    // The reachable cell with the largest finite cost, or -1 if every reachable cell is
+    // already a landmark.
+    private static int farthest(double[] nearest) {
+        int farthest = -1;
+        double max = 0.0;
+        for (int cell = 0; cell < nearest.length; cell++) {
+            if (nearest[cell] > max && nearest[cell] != Double.POSITIVE_INFINITY) {
+                max = nearest[cell];
+                farthest = cell;
+            }
+        }
+        return farthest;
+    }
+}
@@ -0,0 +1,139 @@
+package com.algofind.model;
+
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingRequest.Point;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.dto.PathfindingResponse.Status;
+
+import java.util.List;
+
+/**
+ * Limits on one search, taken from the request's {@code maxTimeMs}, {@code maxNodes}
+ * and {@code maxFrontier}. Searches call {@link #isExhausted(int, int)} before each
+ * expansion and stop once it returns true, answering with the best path found so far
+ * and the {@link Status} naming the limit that was hit. The clock starts when the
+ * budget is created and is only read every {@value #TIME_CHECK_INTERVAL} calls.
+ *
+ * <p>The caller passes the budget into the search and can read back what it saw: the
+ * largest frontier, and when the search proper ended and building the path began.
+ */
+public final class SearchBudget {
+
+    private static final int TIME_CHECK_INTERVAL = 1024;
+
+    private final long deadline;
+    private final boolean timed;
+    private final int maxNodes;
+    private final int maxFrontier;
+    private int untilTimeCheck = TIME_CHECK_INTERVAL;
+    private Status status = Status.COMPLETE;
+    private int peakFrontier;
+    private boolean ended;
+    private long endedAt;
+
+    private SearchBudget(Long maxTimeMs, Integer maxNodes, Integer maxFrontier) {
+        this.timed = maxTimeMs != null;
+        this.deadline = timed ? System.nanoTime() + maxTimeMs * 1_000_000L : 0;
+        this.maxNodes = maxNodes != null ? maxNodes : Integer.MAX_VALUE;
+        this.maxFrontier = maxFrontier != null ? maxFrontier : Integer.MAX_VALUE;
+    }
+
+    public static SearchBudget forRequest(PathfindingRequest request) {
+        return new SearchBudget(request.getMaxTimeMs(), request.getMaxNodes(), request.getMaxFrontier());
+    }
+
+    /**
+     * Returns true once {@code nodesExpanded} has reached the node limit, the frontier
+     * has outgrown its limit or the time is up. Stays true after that.
+     */
+    public boolean isExhausted(int nodesExpanded, int frontierSize) {
+        if (status != Status.COMPLETE) {
+            return true;
+        }
+        if (frontierSize > peakFrontier) {
+            peakFrontier = frontierSize;
+        }
+        if (nodesExpanded >= maxNodes) {
+            status = Status.NODE_LIMIT;
+        } else if (frontierSize > maxFrontier) {
+            status = Status.FRONTIER_LIMIT;
+        } else if (timed && --untilTimeCheck == 0) {
+            untilTimeCheck = TIME_CHECK_INTERVAL;
+            if (System.nanoTime() - deadline >= 0) {
+                status = Status.TIME_LIMIT;
+            }
+        }
+        if (status != Status.COMPLETE) {
+            searchEnded();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * For work done within one expansion that can run long by itself, such as a jump
+     * scanning along a row: call once per step. Returns true once the time is up, and
+     * like {@link #isExhausted(int, int)} stays true after that.
+     */
+    public boolean isExhaustedWithinExpansion() {
+        if (status == Status.COMPLETE && timed && --untilTimeCheck == 0) {
+            untilTimeCheck = TIME_CHECK_INTERVAL;
+            if (System.nanoTime() - deadline >= 0) {
+                status = Status.TIME_LIMIT;
+                searchEnded();
+            }
+        }
+        return status != Status.COMPLETE;
+    }
+
+    /**
+     * Marks the end of the search proper; what follows is building the path and the
+     * response. Only the first call counts.
+     */
+    public void searchEnded() {
+        if (!ended) {
+            ended = true;
+            endedAt = System.nanoTime();
+        }
+    }
+
+    public boolean hasSearchEnded() {
+        return ended;
+    }
+
+    /**
+     * {@link System#nanoTime()} at {@link #searchEnded()}.
+     */
+    public long getSearchEndedAt() {
+        return endedAt;
+    }
+
+    public int getPeakFrontier() {
+        return peakFrontier;
+    }
+
+    /**
+     * True when the request set any limit at all.
+     */
+    public boolean isBounded() {
+        return timed || maxNodes != Integer.MAX_VALUE || maxFrontier != Integer.MAX_VALUE;
+    }
+
+    public boolean isExhausted() {
+        return status != Status.COMPLETE;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * The response for a search stopped by this budget before reaching the end, carrying
+     * {@code path} as the best it got.
+     */
+    public PathfindingResponse stoppedResponse(List<Point> path, ExplorationTrace trace, int nodesExplored, String algorithm) {
+        PathfindingResponse response = new PathfindingResponse(path, trace.toPoints(), nodesExplored, 0, false, algorithm);
+        response.setStatus(status);
+        return response;
+    }
+}
@@ -0,0 +1,32 @@
+package com.algofind.model;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A grid held by the map registry. Queries run under the read lock; anything that
+ * changes the grid must hold the write lock.
+ */
+public class StoredMap {
+
+    private final String id;
+    private final GridGraph grid;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public StoredMap(String id, GridGraph grid) {
+        this.id = id;
+        this.grid = grid;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public GridGraph getGrid() {
+        return grid;
+    }
+
+    public ReadWriteLock getLock() {
+        return lock;
+    }
+}
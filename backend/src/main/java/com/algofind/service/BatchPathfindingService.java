@@ -0,0 +1,94 @@
+package com.algofind.service;
+
+import com.algofind.dto.MapQueryRequest;
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ExplorationTrace;
+import com.algofind.model.GridGraph;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a list of queries against one grid on the pathfinding executor. The searches
+ * only read the grid, so they share it; results come back in query order. A batch
+ * takes at most one executor slot per pool thread, each working through the queries
+ * in turn, so a large batch cannot fill the queue on its own.
+ */
+@Service
+public class BatchPathfindingService {
+
+    private final PathfindingServiceFactory serviceFactory;
+    private final ThreadPoolExecutor pathfindingExecutor;
+    private final ResultCache resultCache;
+    private final SearchMetrics searchMetrics;
+
+    public BatchPathfindingService(PathfindingServiceFactory serviceFactory, ThreadPoolExecutor pathfindingExecutor,
+                                   ResultCache resultCache, SearchMetrics searchMetrics) {
+        this.serviceFactory = serviceFactory;
+        this.pathfindingExecutor = pathfindingExecutor;
+        this.resultCache = resultCache;
+        this.searchMetrics = searchMetrics;
+    }
+
+    public List<PathfindingResponse> execute(GridGraph grid, List<MapQueryRequest> queries) {
+        int count = queries.size();
+        PathfindingRequest[] requests = new PathfindingRequest[count];
+        PathfindingService[] services = new PathfindingService[count];
+        for (int i = 0; i < count; i++) {
+            requests[i] = queries.get(i).toPathfindingRequest(grid.getWidth(), grid.getHeight(), grid.isAllowDiagonal());
+            services[i] = serviceFactory.getService(requests[i].getAlgorithm());
+        }
+
+        PathfindingResponse[] results = new PathfindingResponse[count];
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                results[i] = run(services[i], requests[i], grid);
+            }
+        };
+
+        int workers = Math.min(count, pathfindingExecutor.getMaximumPoolSize());
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            try {
+                futures.add(CompletableFuture.runAsync(worker, pathfindingExecutor));
+            } catch (RejectedExecutionException ex) {
+                // Fewer workers still get through every query; none at all means the
+                // server is saturated.
+                if (futures.isEmpty()) {
+                    throw ex;
+                }
+                break;
+            }
+        }
+
+        try {
+            for (CompletableFuture<Void> future : futures) {
+                future.join();
+            }
+        } catch (CompletionException ex) {
+            next.set(count);
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        return Arrays.asList(results);
+    }
+
+    private PathfindingResponse run(PathfindingService service, PathfindingRequest request, GridGraph grid) {
+        long startTime = System.currentTimeMillis();
+        PathfindingResponse response = resultCache.execute(request, grid,
+            () -> searchMetrics.search(service, request, grid, ExplorationTrace.forRequest(request, grid)));
+        response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+        return response;
+    }
+}
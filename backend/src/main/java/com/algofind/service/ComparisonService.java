@@ -0,0 +1,70 @@
+package com.algofind.service;
+
+import com.algofind.dto.ComparePathfindingRequest;
+import com.algofind.dto.ComparePathfindingResponse;
+import com.algofind.dto.ComparePathfindingResponse.Comparison;
+import com.algofind.dto.MapQueryRequest;
+import com.algofind.dto.PathfindingRequest.Algorithm;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.GridGraph;
+import com.algofind.util.PathUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Runs one query under several algorithms as a batch, so they share the grid and run
+ * side by side on the pathfinding executor, then sets their results against each
+ * other. Only algorithms that found a path compete for fastest and fewest nodes.
+ */
+@Service
+public class ComparisonService {
+
+    private final BatchPathfindingService batchService;
+
+    public ComparisonService(BatchPathfindingService batchService) {
+        this.batchService = batchService;
+    }
+
+    public ComparePathfindingResponse compare(GridGraph grid, ComparePathfindingRequest request) {
+        List<MapQueryRequest> queries = new ArrayList<>();
+        for (Algorithm algorithm : new LinkedHashSet<>(request.getAlgorithms())) {
+            queries.add(request.toQuery(algorithm));
+        }
+        List<PathfindingResponse> results = batchService.execute(grid, queries);
+
+        List<Comparison> comparison = new ArrayList<>(results.size());
+        PathfindingResponse fastest = null;
+        PathfindingResponse fewestNodes = null;
+        Double lowestCost = null;
+        for (PathfindingResponse result : results) {
+            Double cost = result.isPathFound() ? PathUtils.pathCost(grid, result.getPath()) : null;
+            comparison.add(new Comparison(result.getAlgorithm(), result.isPathFound(), result.getExecutionTimeMs(),
+                result.getNodesExplored(), result.getPath().size(), cost, null));
+            if (cost == null) {
+                continue;
+            }
+            if (fastest == null || result.getExecutionTimeMs() < fastest.getExecutionTimeMs()) {
+                fastest = result;
+            }
+            if (fewestNodes == null || result.getNodesExplored() < fewestNodes.getNodesExplored()) {
+                fewestNodes = result;
+            }
+            if (lowestCost == null || cost < lowestCost) {
+                lowestCost = cost;
+            }
+        }
+        for (Comparison entry : comparison) {
+            if (entry.getPathCost() != null) {
+                entry.setCostRatio(lowestCost > 0 ? entry.getPathCost() / lowestCost : 1.0);
+            }
+        }
+
+        return new ComparePathfindingResponse(results, comparison,
+            fastest != null ? fastest.getAlgorithm() : null,
+            fewestNodes != null ? fewestNodes.getAlgorithm() : null,
+            lowestCost, 0);
+    }
+}
@@ -0,0 +1,8 @@
+package com.algofind.service;
+
+public class MapNotFoundException extends RuntimeException {
+
+    public MapNotFoundException(String mapId) {
+        super("No map found with id: " + mapId);
+    }
+}
@@ -0,0 +1,73 @@
+package com.algofind.service;
+
+import com.algofind.model.ConnectedComponents;
+import com.algofind.model.GridGraph;
+import com.algofind.model.StoredMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+
+/**
+ * Grids uploaded once and queried by id. Maps are kept in access order and the least
+ * recently used ones are dropped when there are more than {@code app.maps.max-entries}
+ * of them or their cells add up to more than {@code app.maps.max-cells}. Structures
+ * derived from a grid (such as the HPA* abstract graph) live on it and go with it;
+ * {@link ConnectedComponents} are built for every map on upload.
+ */
+@Component
+public class MapRegistry {
+
+    private final int maxEntries;
+    private final long maxCells;
+    private final LinkedHashMap<String, StoredMap> maps = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalCells;
+
+    public MapRegistry(@Value("${app.maps.max-entries}") int maxEntries,
+                       @Value("${app.maps.max-cells}") long maxCells) {
+        this.maxEntries = maxEntries;
+        this.maxCells = maxCells;
+    }
+
+    public StoredMap register(GridGraph grid) {
+        if (grid.getCellCount() > maxCells) {
+            throw new IllegalArgumentException("Map of " + grid.getCellCount() + " cells exceeds the limit of " + maxCells);
+        }
+
+        // Built up front, outside the lock, so every query on the map can be checked
+        // for reachability before it is searched.
+        grid.getDerived(ConnectedComponents.class, ConnectedComponents::new);
+        return add(new StoredMap(UUID.randomUUID().toString(), grid));
+    }
+
+    private synchronized StoredMap add(StoredMap map) {
+        GridGraph grid = map.getGrid();
+        maps.put(map.getId(), map);
+        totalCells += grid.getCellCount();
+
+        Iterator<StoredMap> eldest = maps.values().iterator();
+        while (maps.size() > maxEntries || totalCells > maxCells) {
+            totalCells -= eldest.next().getGrid().getCellCount();
+            eldest.remove();
+        }
+        return map;
+    }
+
+    public synchronized StoredMap get(String mapId) {
+        StoredMap map = maps.get(mapId);
+        if (map == null) {
+            throw new MapNotFoundException(mapId);
+        }
+        return map;
+    }
+
+    public synchronized void remove(String mapId) {
+        StoredMap map = maps.remove(mapId);
+        if (map == null) {
+            throw new MapNotFoundException(mapId);
+        }
+        totalCells -= map.getGrid().getCellCount();
+    }
+}
@@ -2,8 +2,23 @@ package com.algofind.service;
 
 import com.algofind.dto.PathfindingRequest;
 import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ExplorationTrace;
+import com.algofind.model.GridGraph;
+import com.algofind.model.SearchBudget;
 
 public interface PathfindingService {
-    PathfindingResponse execute(PathfindingRequest request);
+    default PathfindingResponse execute(PathfindingRequest request) {
+        return execute(request, GridGraph.from(request));
+    }
+
+    default PathfindingResponse execute(PathfindingRequest request, GridGraph grid) {
+        return execute(request, grid, ExplorationTrace.forRequest(request, grid));
+    }
+
+    default PathfindingResponse execute(PathfindingRequest request, GridGraph grid, ExplorationTrace trace) {
+        return execute(request, grid, trace, SearchBudget.forRequest(request));
+    }
+
+    PathfindingResponse execute(PathfindingRequest request, GridGraph grid, ExplorationTrace trace, SearchBudget budget);
     String getAlgorithmName();
 }
@@ -39,6 +39,18 @@ public class PathfindingServiceFactory {
                 return PathfindingRequest.Algorithm.DIJKSTRA;
             case "A_STAR":
                 return PathfindingRequest.Algorithm.A_STAR;
+            case "JPS":
+                return PathfindingRequest.Algorithm.JPS;
+            case "HPA_STAR":
+                return PathfindingRequest.Algorithm.HPA_STAR;
+            case "FLOW_FIELD":
+                return PathfindingRequest.Algorithm.FLOW_FIELD;
+            case "BIDIRECTIONAL_DIJKSTRA":
+                return PathfindingRequest.Algorithm.BIDIRECTIONAL_DIJKSTRA;
+            case "BIDIRECTIONAL_A_STAR":
+                return PathfindingRequest.Algorithm.BIDIRECTIONAL_A_STAR;
+            case "ALT":
+                return PathfindingRequest.Algorithm.ALT;
             default:
                 return null;
         }
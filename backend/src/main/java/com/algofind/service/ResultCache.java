@@ -0,0 +1,145 @@
+package com.algofind.service;
+
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingRequest.Algorithm;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.GridGraph;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Responses of recent searches, keyed by the grid fingerprint and every request field
+ * that affects the result. Entries expire after {@code app.result-cache.ttl}, and the
+ * least recently used go first once there are more than
+ * {@code app.result-cache.max-entries} of them or their paths and visited lists hold
+ * more than {@code app.result-cache.max-points} points in total.
+ *
+ * <p>BFS breaks ties at random, so it is only cached when the request has a seed.
+ * Searches stopped by a request budget are not cached; the budget is not part of the
+ * key, so a budgeted request can be answered by an earlier complete result.
+ */
+@Component
+public class ResultCache {
+
+    private record Key(long fingerprint, int width, int height, boolean allowDiagonal, Algorithm algorithm,
+                       int startX, int startY, int endX, int endY,
+                       boolean includeVisited, Integer visitedStride, Integer visitedLimit, Long seed) {}
+
+    private record Entry(PathfindingResponse response, long points, long expiresAt) {}
+
+    private final int maxEntries;
+    private final long maxPoints;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalPoints;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ResultCache(@Value("${app.result-cache.max-entries}") int maxEntries,
+                       @Value("${app.result-cache.max-points}") long maxPoints,
+                       @Value("${app.result-cache.ttl}") Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.maxPoints = maxPoints;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public PathfindingResponse execute(PathfindingService service, PathfindingRequest request, GridGraph grid) {
+        return execute(request, grid, () -> service.execute(request, grid));
+    }
+
+    /**
+     * Returns the cached response for this query, or the one {@code search} produces.
+     */
+    public PathfindingResponse execute(PathfindingRequest request, GridGraph grid, Supplier<PathfindingResponse> search) {
+        if (maxEntries == 0 || (request.getAlgorithm() == Algorithm.BFS && request.getSeed() == null)) {
+            return search.get();
+        }
+
+        Key key = new Key(grid.getFingerprint(), grid.getWidth(), grid.getHeight(), grid.isAllowDiagonal(),
+            request.getAlgorithm(), request.getStart().getX(), request.getStart().getY(),
+            request.getEnd().getX(), request.getEnd().getY(), request.shouldIncludeVisited(),
+            request.getVisitedStride(), request.getVisitedLimit(), request.getSeed());
+
+        PathfindingResponse cached = get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return copy(cached);
+        }
+
+        misses.incrementAndGet();
+        PathfindingResponse response = search.get();
+        if (response.getStatus() == PathfindingResponse.Status.COMPLETE) {
+            put(key, copy(response));
+        }
+        return response;
+    }
+
+    public Map<String, Long> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        synchronized (this) {
+            return Map.of(
+                "hits", hitCount,
+                "misses", missCount,
+                "evictions", evictions.get(),
+                "entries", (long) entries.size(),
+                "points", totalPoints
+            );
+        }
+    }
+
+    private synchronized PathfindingResponse get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt() > 0) {
+            entries.remove(key);
+            totalPoints -= entry.points();
+            evictions.incrementAndGet();
+            return null;
+        }
+        return entry.response();
+    }
+
+    private synchronized void put(Key key, PathfindingResponse response) {
+        long points = response.getPath().size()
+            + (response.getVisitedPath() != null ? response.getVisitedPath().size() : 0);
+        if (points > maxPoints) {
+            return;
+        }
+
+        Entry previous = entries.put(key, new Entry(response, points, System.nanoTime() + ttlNanos));
+        if (previous != null) {
+            totalPoints -= previous.points();
+        }
+        totalPoints += points;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || totalPoints > maxPoints) {
+            totalPoints -= eldest.next().points();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    // Callers set executionTimeMs on what they get back, so cached responses are never
+    // handed out directly. The point lists are not modified after a search and are
+    // shared.
+    private PathfindingResponse copy(PathfindingResponse response) {
+        PathfindingResponse copy = new PathfindingResponse(response.getPath(), response.getVisitedPath(),
+            response.getNodesExplored(), response.getExecutionTimeMs(), response.isPathFound(), response.getAlgorithm());
+        copy.setForwardNodesExplored(response.getForwardNodesExplored());
+        copy.setBackwardNodesExplored(response.getBackwardNodesExplored());
+        copy.setStatus(response.getStatus());
+        return copy;
+    }
+}
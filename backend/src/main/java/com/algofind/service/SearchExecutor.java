@@ -0,0 +1,76 @@
+package com.algofind.service;
+
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ExplorationTrace;
+import com.algofind.model.GridGraph;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * Runs searches on the bounded pathfinding executor and waits for them, so however
+ * many requests are in flight, only as many searches as the pool has threads use the
+ * CPU at once. Submitting to a full queue throws
+ * {@link java.util.concurrent.RejectedExecutionException}, which is answered with 429.
+ */
+@Service
+public class SearchExecutor {
+
+    private final ThreadPoolExecutor pathfindingExecutor;
+    private final ResultCache resultCache;
+    private final SearchMetrics searchMetrics;
+
+    public SearchExecutor(ThreadPoolExecutor pathfindingExecutor, ResultCache resultCache,
+                          SearchMetrics searchMetrics) {
+        this.pathfindingExecutor = pathfindingExecutor;
+        this.resultCache = resultCache;
+        this.searchMetrics = searchMetrics;
+    }
+
+    /**
+     * Answers from the result cache when possible and otherwise runs the search on the
+     * executor.
+     */
+    public PathfindingResponse execute(PathfindingService service, PathfindingRequest request, GridGraph grid) {
+        return resultCache.execute(request, grid,
+            () -> execute(() -> searchMetrics.search(service, request, grid, ExplorationTrace.forRequest(request, grid))));
+    }
+
+    public <T> T execute(Supplier<T> search) {
+        return await(submit(search));
+    }
+
+    /**
+     * Queues a search on the executor without waiting for it; collect the result with
+     * {@link #await(Future)}.
+     */
+    public <T> Future<T> submit(Supplier<T> search) {
+        return pathfindingExecutor.submit(search::get);
+    }
+
+    /**
+     * Waits for a submitted search, rethrowing whatever it threw.
+     */
+    public <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a search");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
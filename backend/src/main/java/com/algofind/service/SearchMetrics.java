@@ -0,0 +1,147 @@
+package com.algofind.service;
+
+import com.algofind.dto.MapUploadRequest;
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ExplorationTrace;
+import com.algofind.model.GridGraph;
+import com.algofind.model.SearchBudget;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the phases of a request, each tagged with the algorithm:
+ * <ul>
+ *   <li>{@code algograph.grid.build}: building the {@link GridGraph} from the request
+ *       (tagged {@value #NO_ALGORITHM} when the grid is not built for a single search);
+ *   <li>{@code algograph.search}: the search itself, also tagged with its status;
+ *   <li>{@code algograph.search.reconstruction}: building the path and response once
+ *       the search has ended;
+ *   <li>{@code algograph.response.serialization}: writing the response body, tagged
+ *       with the format;
+ *   <li>{@code algograph.search.nodes}, {@code algograph.search.frontier} and
+ *       {@code algograph.search.allocated}: nodes expanded, the largest frontier and
+ *       the bytes allocated by one search.
+ * </ul>
+ * Timers publish percentile histograms. Cached responses skip the search meters.
+ */
+@Component
+public class SearchMetrics {
+
+    public static final String NO_ALGORITHM = "none";
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final MeterRegistry registry;
+    private final boolean allocationTracked;
+
+    public SearchMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.allocationTracked = THREADS instanceof com.sun.management.ThreadMXBean threads
+            && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+    }
+
+    public GridGraph gridFrom(PathfindingRequest request) {
+        // A binary request arrives with its grid built, and timed, by the converter.
+        if (request.getGrid() != null) {
+            return request.getGrid();
+        }
+        return buildGrid(request.getAlgorithm().name(), () -> GridGraph.from(request));
+    }
+
+    public GridGraph gridFrom(MapUploadRequest request) {
+        return buildGrid(NO_ALGORITHM, () -> GridGraph.from(request));
+    }
+
+    public GridGraph buildGrid(String algorithm, Supplier<GridGraph> build) {
+        long start = System.nanoTime();
+        GridGraph grid = build.get();
+        recordGridBuild(algorithm, System.nanoTime() - start);
+        return grid;
+    }
+
+    public void recordGridBuild(String algorithm, long nanos) {
+        timer("algograph.grid.build", "Time to build the grid from a request", algorithm)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs the search with the request's budget and records its meters. The search
+     * phase ends when the service calls {@link SearchBudget#searchEnded()}; searches
+     * that end without a path spend all their time in it.
+     */
+    public PathfindingResponse search(PathfindingService service, PathfindingRequest request, GridGraph grid,
+                                      ExplorationTrace trace) {
+        SearchBudget budget = SearchBudget.forRequest(request);
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        PathfindingResponse response = service.execute(request, grid, trace, budget);
+        long end = System.nanoTime();
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        String algorithm = request.getAlgorithm().name();
+        long searchEnd = budget.hasSearchEnded() ? budget.getSearchEndedAt() : end;
+        Timer.builder("algograph.search")
+            .description("Time spent searching, up to the point the path is built")
+            .tag("algorithm", algorithm)
+            .tag("status", response.getStatus().name())
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(searchEnd - start, TimeUnit.NANOSECONDS);
+        if (budget.hasSearchEnded()) {
+            timer("algograph.search.reconstruction", "Time to build the path and response after the search", algorithm)
+                .record(end - searchEnd, TimeUnit.NANOSECONDS);
+        }
+
+        summary("algograph.search.nodes", "Nodes expanded per search", null, algorithm)
+            .record(response.getNodesExplored());
+        if (budget.getPeakFrontier() > 0) {
+            summary("algograph.search.frontier", "Largest frontier per search", null, algorithm)
+                .record(budget.getPeakFrontier());
+        }
+        if (allocationTracked) {
+            summary("algograph.search.allocated", "Heap allocated per search", "bytes", algorithm)
+                .record(allocated);
+        }
+        return response;
+    }
+
+    public void recordSerialization(String algorithm, String format, long nanos) {
+        Timer.builder("algograph.response.serialization")
+            .description("Time to write the response body")
+            .tag("algorithm", algorithm)
+            .tag("format", format)
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, String description, String algorithm) {
+        return Timer.builder(name)
+            .description(description)
+            .tag("algorithm", algorithm)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    private DistributionSummary summary(String name, String description, String unit, String algorithm) {
+        return DistributionSummary.builder(name)
+            .description(description)
+            .baseUnit(unit)
+            .tag("algorithm", algorithm)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    // Allocation is counted per thread, and a search runs on a single thread.
+    private long allocatedBytes() {
+        return allocationTracked ? ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes() : 0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.algofind.service;
+
+import com.algofind.util.SearchWorkspace;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idle {@link SearchWorkspace}s shared by all request threads. A search takes the
+ * smallest idle workspace that fits its grid, or a new one, and hands it back when
+ * done. The pool is not tied to threads, so it works the same on virtual threads.
+ * Idle workspaces are bounded by {@code app.search.workspaces.max-idle} and by their
+ * cells adding up to at most {@code app.search.workspaces.max-idle-cells}; the least
+ * recently returned ones are dropped first.
+ */
+@Component
+public class SearchWorkspacePool {
+
+    private final int maxIdle;
+    private final long maxIdleCells;
+    private final ConcurrentLinkedDeque<SearchWorkspace> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicLong idleCells = new AtomicLong();
+
+    public SearchWorkspacePool(@Value("${app.search.workspaces.max-idle}") int maxIdle,
+                               @Value("${app.search.workspaces.max-idle-cells}") long maxIdleCells) {
+        this.maxIdle = maxIdle;
+        this.maxIdleCells = maxIdleCells;
+    }
+
+    public SearchWorkspace acquire(int cellCount) {
+        SearchWorkspace best = null;
+        for (SearchWorkspace workspace : idle) {
+            if (workspace.getCapacity() >= cellCount
+                    && (best == null || workspace.getCapacity() < best.getCapacity())) {
+                best = workspace;
+            }
+        }
+        // Another thread may have taken it in the meantime; only the one that removes
+        // it from the deque gets to use it.
+        if (best != null && idle.removeFirstOccurrence(best)) {
+            idleCount.decrementAndGet();
+            idleCells.addAndGet(-best.getCapacity());
+            best.reset();
+            return best;
+        }
+        return new SearchWorkspace(cellCount);
+    }
+
+    public void release(SearchWorkspace workspace) {
+        if (workspace.getCapacity() > maxIdleCells || maxIdle == 0) {
+            return;
+        }
+        idle.offerFirst(workspace);
+        idleCount.incrementAndGet();
+        idleCells.addAndGet(workspace.getCapacity());
+
+        while (idleCount.get() > maxIdle || idleCells.get() > maxIdleCells) {
+            SearchWorkspace dropped = idle.pollLast();
+            if (dropped == null) {
+                break;
+            }
+            idleCount.decrementAndGet();
+            idleCells.addAndGet(-dropped.getCapacity());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.algofind.service;
+
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ExplorationTrace;
+import com.algofind.model.GridGraph;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a search while writing it out as newline-delimited JSON: one
+ * {@code {"visited": [[x, y], ...]}} line per chunk of visited cells as the search
+ * produces them, then a single {@code {"result": {...}}} line with the response,
+ * minus {@code visitedPath}. Nothing is kept per visited cell, so memory does not grow
+ * with the size of the exploration.
+ *
+ * <p>The search runs on the pathfinding executor and only hands chunks over through a
+ * small bounded buffer; the request thread does all the writing. A slow client thus
+ * slows the search down, and one that stops reading for {@value #STALL_TIMEOUT_SECONDS}
+ * seconds has its search abandoned, so it cannot hold a search thread indefinitely.
+ */
+@Service
+public class StreamingPathfindingService {
+
+    private static final int CHUNK_SIZE = 1024;
+    private static final int BUFFERED_CHUNKS = 16;
+    private static final long STALL_TIMEOUT_SECONDS = 10;
+    private static final byte NEWLINE = '\n';
+    // Handed over after the last chunk.
+    private static final int[][] END = new int[0][];
+
+    private final ObjectMapper objectMapper;
+    private final SearchExecutor searchExecutor;
+    private final SearchMetrics searchMetrics;
+
+    public StreamingPathfindingService(ObjectMapper objectMapper, SearchExecutor searchExecutor,
+                                       SearchMetrics searchMetrics) {
+        this.objectMapper = objectMapper;
+        this.searchExecutor = searchExecutor;
+        this.searchMetrics = searchMetrics;
+    }
+
+    public void stream(PathfindingService service, PathfindingRequest request, GridGraph grid, OutputStream out)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+
+        BlockingQueue<int[][]> chunks = new ArrayBlockingQueue<>(BUFFERED_CHUNKS);
+        // Visited cells are streamed unless the request explicitly opts out.
+        ExplorationTrace trace = Boolean.FALSE.equals(request.getIncludeVisited())
+            ? ExplorationTrace.forRequest(request, grid)
+            : ExplorationTrace.streaming(request, grid, CHUNK_SIZE,
+                (cells, count) -> handOver(chunks, toPoints(grid, cells, count)));
+
+        Future<PathfindingResponse> search = searchExecutor.submit(() -> {
+            try {
+                PathfindingResponse result = searchMetrics.search(service, request, grid, trace);
+                trace.flush();
+                handOver(chunks, END);
+                return result;
+            } catch (RuntimeException | Error ex) {
+                // Best effort; the writer also stops once the search is done.
+                chunks.offer(END);
+                throw ex;
+            }
+        });
+
+        try {
+            while (true) {
+                int[][] chunk = chunks.poll(1, TimeUnit.SECONDS);
+                if (chunk == END || (chunk == null && search.isDone() && chunks.isEmpty())) {
+                    break;
+                }
+                if (chunk != null) {
+                    writeLine(out, Map.of("visited", chunk));
+                }
+            }
+        } catch (IOException ex) {
+            // The client went away; stop the search rather than finish one nobody reads.
+            search.cancel(true);
+            throw ex;
+        } catch (InterruptedException ex) {
+            search.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while streaming a search");
+        }
+
+        PathfindingResponse response = searchExecutor.await(search);
+        response.setExecutionTimeMs(System.currentTimeMillis() - startTime);
+        writeLine(out, Map.of("result", response));
+    }
+
+    // Runs on the search thread, which only waits here while the buffer is full.
+    private static void handOver(BlockingQueue<int[][]> chunks, int[][] chunk) {
+        try {
+            if (!chunks.offer(chunk, STALL_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new CancellationException("Client stopped reading the stream");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Stream was abandoned");
+        }
+    }
+
+    private static int[][] toPoints(GridGraph grid, int[] cells, int count) {
+        int[][] points = new int[count][];
+        for (int i = 0; i < count; i++) {
+            points[i] = new int[] {grid.getX(cells[i]), grid.getY(cells[i])};
+        }
+        return points;
+    }
+
+    private void writeLine(OutputStream out, Object line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write(NEWLINE);
+        out.flush();
+    }
+}
@@ -0,0 +1,49 @@
+package com.algofind.service.algorithm;
+
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ConnectedComponents;
+import com.algofind.model.ExplorationTrace;
+import com.algofind.model.GridGraph;
+import com.algofind.model.LandmarkTable;
+import com.algofind.model.SearchBudget;
+import com.algofind.service.PathfindingService;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+
+/**
+ * A* with landmark (ALT) lower bounds in place of octile distance. The landmark
+ * table takes one Dijkstra over the grid per landmark; it is built on first use and
+ * cached on the grid, so it pays off on stored maps queried repeatedly. The gain is
+ * largest on weighted and maze-like maps; where octile distance is already close,
+ * the extra table lookups cost more than they save. Paths are optimal, as with A*.
+ */
+@Service
+public class ALTService implements PathfindingService {
+
+    private final AStarService aStarService;
+
+    public ALTService(AStarService aStarService) {
+        this.aStarService = aStarService;
+    }
+
+    @Override
+    public PathfindingResponse execute(PathfindingRequest request, GridGraph grid, ExplorationTrace trace,
+                                       SearchBudget budget) {
+        int start = grid.indexOf(request.getStart());
+        int end = grid.indexOf(request.getEnd());
+        if (ConnectedComponents.isUnreachable(grid, start, end)) {
+            return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), 0, 0, false, getAlgorithmName());
+        }
+
+        LandmarkTable landmarks = grid.getDerived(LandmarkTable.class, LandmarkTable::new);
+        return aStarService.execute(grid, start, end, trace, budget, landmarks.heuristicTo(grid, end),
+            getAlgorithmName());
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "ALT";
+    }
+}
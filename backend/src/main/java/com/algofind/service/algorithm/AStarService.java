@@ -3,98 +3,111 @@ package com.algofind.service.algorithm;
 import com.algofind.dto.PathfindingRequest;
 import com.algofind.dto.PathfindingRequest.Point;
 import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ConnectedComponents;
+import com.algofind.model.ExplorationTrace;
 import com.algofind.model.GridGraph;
+import com.algofind.model.SearchBudget;
 import com.algofind.service.PathfindingService;
+import com.algofind.service.SearchWorkspacePool;
+import com.algofind.util.ClosestCell;
+import com.algofind.util.IndexedMinHeap;
 import com.algofind.util.PathUtils;
+import com.algofind.util.SearchWorkspace;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.function.IntToDoubleFunction;
 
 @Service
 public class AStarService implements PathfindingService {
 
-    private static final double SQRT2 = Math.sqrt(2);
     private static final double WEIGHT = 1.0;
 
-    private static class Node implements Comparable<Node> {
-        final Point point;
-        final double gScore;
-        final double fScore;
+    private final SearchWorkspacePool workspacePool;
 
-        Node(Point point, double gScore, double fScore) {
-            this.point = point;
-            this.gScore = gScore;
-            this.fScore = fScore;
+    public AStarService(SearchWorkspacePool workspacePool) {
+        this.workspacePool = workspacePool;
+    }
+
+    @Override
+    public PathfindingResponse execute(PathfindingRequest request, GridGraph grid, ExplorationTrace trace,
+                                       SearchBudget budget) {
+        int start = grid.indexOf(request.getStart());
+        int end = grid.indexOf(request.getEnd());
+        if (ConnectedComponents.isUnreachable(grid, start, end)) {
+            return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), 0, 0, false, getAlgorithmName());
         }
 
-        @Override
-        public int compareTo(Node other) {
-            return Double.compare(this.fScore, other.fScore);
+        return execute(grid, start, end, trace, budget, cell -> grid.estimateCost(cell, end), getAlgorithmName());
+    }
+
+    /**
+     * A* from {@code start} to {@code end} guided by {@code heuristic}, the estimated
+     * cost from a cell to {@code end}, which must never overestimate. Responses carry
+     * {@code algorithm} as their algorithm name.
+     */
+    PathfindingResponse execute(GridGraph grid, int start, int end, ExplorationTrace trace, SearchBudget budget,
+                                IntToDoubleFunction heuristic, String algorithm) {
+        SearchWorkspace workspace = workspacePool.acquire(grid.getCellCount());
+        try {
+            return search(grid, start, end, trace, budget, heuristic, algorithm, workspace);
+        } finally {
+            workspacePool.release(workspace);
         }
     }
 
-    @Override
-    public PathfindingResponse execute(PathfindingRequest request) {
-        GridGraph grid = GridGraph.from(request);
-        Point start = request.getStart();
-        Point end = request.getEnd();
-
-        PriorityQueue<Node> openSet = new PriorityQueue<>();
-        Map<Point, Double> gScore = new HashMap<>();
-        Map<Point, Point> parent = new HashMap<>();
-        Set<Point> closedSet = new HashSet<>();
-        List<Point> visitedPath = new ArrayList<>();
-
-        double startH = heuristic(start, end, grid.isAllowDiagonal());
-        openSet.offer(new Node(start, 0, startH));
-        gScore.put(start, 0.0);
-        parent.put(start, null);
+    private PathfindingResponse search(GridGraph grid, int start, int end, ExplorationTrace trace,
+                                       SearchBudget budget, IntToDoubleFunction heuristic, String algorithm,
+                                       SearchWorkspace workspace) {
+        IndexedMinHeap openSet = workspace.queue();
+        byte[] parent = workspace.parents();
+        int[] neighbors = new int[GridGraph.MAX_NEIGHBORS];
+
+        double startH = heuristic.applyAsDouble(start);
+        openSet.insertOrDecrease(start, startH);
+        workspace.reach(start, 0.0, PathUtils.NO_PARENT);
 
+        ClosestCell closest = new ClosestCell(grid, end, start);
         int nodesExplored = 0;
 
         while (!openSet.isEmpty()) {
-            Node current = openSet.poll();
-            Point currentPoint = current.point;
-
-            if (closedSet.contains(currentPoint)) {
-                continue;
+            if (budget.isExhausted(nodesExplored, openSet.size())) {
+                List<Point> path = PathUtils.reconstructPath(parent, closest.get(), grid);
+                return budget.stoppedResponse(path, trace, nodesExplored, algorithm);
             }
 
-            closedSet.add(currentPoint);
-            visitedPath.add(currentPoint);
+            int currentCell = openSet.poll();
+            workspace.close(currentCell);
+            closest.offer(currentCell);
+            trace.record(currentCell);
             nodesExplored++;
 
-            if (currentPoint.equals(end)) {
-                List<Point> path = PathUtils.reconstructPath(parent, end);
-                return new PathfindingResponse(path, visitedPath, nodesExplored, 0, true, getAlgorithmName());
+            if (currentCell == end) {
+                budget.searchEnded();
+                List<Point> path = PathUtils.reconstructPath(parent, end, grid);
+                return new PathfindingResponse(path, trace.toPoints(), nodesExplored, 0, true, algorithm);
             }
 
-            for (Point neighbor : grid.getNeighbors(currentPoint, closedSet)) {
-                double movementCost = grid.getMovementCost(currentPoint, neighbor);
-                double tentativeGScore = gScore.get(currentPoint) + movementCost;
+            double currentG = workspace.cost(currentCell);
+            int count = grid.getNeighbors(currentCell, null, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (workspace.isClosed(neighbor)) {
+                    continue;
+                }
+                double movementCost = grid.getMovementCost(currentCell, neighbor);
+                double tentativeGScore = currentG + movementCost;
 
-                if (!gScore.containsKey(neighbor) || tentativeGScore < gScore.get(neighbor)) {
-                    gScore.put(neighbor, tentativeGScore);
-                    double h = heuristic(neighbor, end, grid.isAllowDiagonal());
+                if (tentativeGScore < workspace.cost(neighbor)) {
+                    workspace.reach(neighbor, tentativeGScore, PathUtils.link(grid, neighbor, currentCell));
+                    double h = heuristic.applyAsDouble(neighbor);
                     double f = tentativeGScore + WEIGHT * h;
-                    parent.put(neighbor, currentPoint);
-                    openSet.offer(new Node(neighbor, tentativeGScore, f));
+                    openSet.insertOrDecrease(neighbor, f);
                 }
             }
         }
 
-        return new PathfindingResponse(new ArrayList<>(), visitedPath, nodesExplored, 0, false, getAlgorithmName());
-    }
-
-    private double heuristic(Point a, Point b, boolean allowDiagonal) {
-        int dx = Math.abs(a.getX() - b.getX());
-        int dy = Math.abs(a.getY() - b.getY());
-
-        if (allowDiagonal) {
-            return dx + dy + (SQRT2 - 2) * Math.min(dx, dy);
-        } else {
-            return dx + dy;
-        }
+        return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), nodesExplored, 0, false, algorithm);
     }
 
     @Override
@@ -3,61 +3,86 @@ package com.algofind.service.algorithm;
 import com.algofind.dto.PathfindingRequest;
 import com.algofind.dto.PathfindingRequest.Point;
 import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ConnectedComponents;
+import com.algofind.model.ExplorationTrace;
 import com.algofind.model.GridGraph;
+import com.algofind.model.SearchBudget;
 import com.algofind.service.PathfindingService;
 import com.algofind.util.PathUtils;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class BFSService implements PathfindingService {
 
-    private final Random random = new Random();
-
     @Override
-    public PathfindingResponse execute(PathfindingRequest request) {
-        GridGraph grid = GridGraph.from(request);
-        Point start = request.getStart();
-        Point end = request.getEnd();
+    public PathfindingResponse execute(PathfindingRequest request, GridGraph grid, ExplorationTrace trace,
+                                       SearchBudget budget) {
+        int start = grid.indexOf(request.getStart());
+        int end = grid.indexOf(request.getEnd());
+        if (ConnectedComponents.isUnreachable(grid, start, end)) {
+            return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), 0, 0, false, getAlgorithmName());
+        }
 
-        Queue<Point> queue = new LinkedList<>();
-        Map<Point, Point> parent = new HashMap<>();
-        Set<Point> visited = new HashSet<>();
-        List<Point> visitedPath = new ArrayList<>();
+        int[] queue = new int[grid.getCellCount()];
+        int head = 0;
+        int tail = 0;
+        byte[] parent = new byte[grid.getCellCount()];
+        BitSet visited = new BitSet(grid.getCellCount());
+        int[] neighbors = new int[GridGraph.MAX_NEIGHBORS];
+        Random random = request.getSeed() != null ? new Random(request.getSeed()) : ThreadLocalRandom.current();
 
-        queue.offer(start);
-        visited.add(start);
-        visitedPath.add(start);
-        parent.put(start, null);
+        queue[tail++] = start;
+        visited.set(start);
+        trace.record(start);
+        parent[start] = PathUtils.NO_PARENT;
 
         int nodesExplored = 0;
 
-        while (!queue.isEmpty()) {
-            Point current = queue.poll();
+        while (head < tail) {
+            if (budget.isExhausted(nodesExplored, tail - head)) {
+                int closest = PathUtils.closestTo(grid, visited, end, start);
+                List<Point> path = PathUtils.reconstructPath(parent, closest, grid);
+                return budget.stoppedResponse(path, trace, nodesExplored, getAlgorithmName());
+            }
+
+            int current = queue[head++];
             nodesExplored++;
 
-            if (current.equals(end)) {
-                List<Point> path = PathUtils.reconstructPath(parent, end);
-                return new PathfindingResponse(path, visitedPath, nodesExplored, 0, true, getAlgorithmName());
+            if (current == end) {
+                budget.searchEnded();
+                List<Point> path = PathUtils.reconstructPath(parent, end, grid);
+                return new PathfindingResponse(path, trace.toPoints(), nodesExplored, 0, true, getAlgorithmName());
             }
 
-            List<Point> neighbors = grid.getNeighbors(current, visited);
-            Collections.shuffle(neighbors, random);
+            int count = grid.getNeighbors(current, visited, neighbors);
+            shuffle(neighbors, count, random);
 
-            for (Point neighbor : neighbors) {
-                queue.offer(neighbor);
-                visited.add(neighbor);
-                visitedPath.add(neighbor);
-                parent.put(neighbor, current);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                queue[tail++] = neighbor;
+                visited.set(neighbor);
+                trace.record(neighbor);
+                parent[neighbor] = PathUtils.link(grid, neighbor, current);
             }
         }
 
-        return new PathfindingResponse(new ArrayList<>(), visitedPath, nodesExplored, 0, false, getAlgorithmName());
+        return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), nodesExplored, 0, false, getAlgorithmName());
     }
 
     @Override
     public String getAlgorithmName() {
         return "BFS";
     }
+
+    private void shuffle(int[] cells, int count, Random random) {
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = cells[i];
+            cells[i] = cells[j];
+            cells[j] = tmp;
+        }
+    }
 }
@@ -0,0 +1,26 @@
+package com.algofind.service.algorithm;
+
+import com.algofind.model.GridGraph;
+import com.algofind.service.SearchWorkspacePool;
+import org.springframework.stereotype.Service;
+
+@Service
+public class BidirectionalAStarService extends BidirectionalSearch {
+
+    public BidirectionalAStarService(SearchWorkspacePool workspacePool) {
+        super(workspacePool);
+    }
+
+    // Average of the distance-to-end and distance-from-start estimates. Each side
+    // alone would not be consistent for the other direction; half their difference is
+    // consistent for both, so the keys stay comparable across the two searches.
+    @Override
+    protected double potential(GridGraph grid, int cell, int start, int end) {
+        return (grid.estimateCost(cell, end) - grid.estimateCost(start, cell)) / 2;
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "BIDIRECTIONAL_A_STAR";
+    }
+}
@@ -0,0 +1,23 @@
+package com.algofind.service.algorithm;
+
+import com.algofind.model.GridGraph;
+import com.algofind.service.SearchWorkspacePool;
+import org.springframework.stereotype.Service;
+
+@Service
+public class BidirectionalDijkstraService extends BidirectionalSearch {
+
+    public BidirectionalDijkstraService(SearchWorkspacePool workspacePool) {
+        super(workspacePool);
+    }
+
+    @Override
+    protected double potential(GridGraph grid, int cell, int start, int end) {
+        return 0.0;
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "BIDIRECTIONAL_DIJKSTRA";
+    }
+}
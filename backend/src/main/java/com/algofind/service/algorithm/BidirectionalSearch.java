@@ -0,0 +1,193 @@
+package com.algofind.service.algorithm;
+
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingRequest.Point;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ConnectedComponents;
+import com.algofind.model.ExplorationTrace;
+import com.algofind.model.GridGraph;
+import com.algofind.model.SearchBudget;
+import com.algofind.service.PathfindingService;
+import com.algofind.service.SearchWorkspacePool;
+import com.algofind.util.ClosestCell;
+import com.algofind.util.IndexedMinHeap;
+import com.algofind.util.PathUtils;
+import com.algofind.util.SearchWorkspace;
+
+import java.util.*;
+
+/**
+ * Searches forward from the start and backward from the end at the same time, always
+ * expanding the side with the lower key. The backward side follows moves in reverse,
+ * so it pays {@code getMovementCost(predecessor, cell)}: the weight of the cell being
+ * entered, not of the one being left.
+ *
+ * <p>Every relaxation that touches a cell labelled by the other side is a candidate
+ * meeting point, and the best one is kept as {@code best}. With potential {@code p},
+ * the forward keys are {@code g + p} and the backward keys {@code g - p}. The search
+ * can stop once the two lowest keys add up to {@code best}: no path through an
+ * unsettled cell can be cheaper. A zero potential gives bidirectional Dijkstra.
+ */
+abstract class BidirectionalSearch implements PathfindingService {
+
+    private final SearchWorkspacePool workspacePool;
+
+    protected BidirectionalSearch(SearchWorkspacePool workspacePool) {
+        this.workspacePool = workspacePool;
+    }
+
+    /**
+     * Forward potential of {@code cell}; it must be consistent for both directions.
+     */
+    protected abstract double potential(GridGraph grid, int cell, int start, int end);
+
+    @Override
+    public PathfindingResponse execute(PathfindingRequest request, GridGraph grid, ExplorationTrace trace,
+                                       SearchBudget budget) {
+        int start = grid.indexOf(request.getStart());
+        int end = grid.indexOf(request.getEnd());
+        if (ConnectedComponents.isUnreachable(grid, start, end)) {
+            return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), 0, 0, false, getAlgorithmName());
+        }
+
+        if (start == end) {
+            trace.record(start);
+            return response(new ArrayList<>(List.of(grid.toPoint(start))), trace, 1, 0, true, budget);
+        }
+
+        SearchWorkspace forward = workspacePool.acquire(grid.getCellCount());
+        SearchWorkspace backward = workspacePool.acquire(grid.getCellCount());
+        try {
+            return search(grid, start, end, trace, budget, forward, backward);
+        } finally {
+            workspacePool.release(backward);
+            workspacePool.release(forward);
+        }
+    }
+
+    private PathfindingResponse search(GridGraph grid, int start, int end, ExplorationTrace trace,
+                                       SearchBudget budget, SearchWorkspace forward, SearchWorkspace backward) {
+        IndexedMinHeap forwardQueue = forward.queue();
+        IndexedMinHeap backwardQueue = backward.queue();
+        byte[] forwardParent = forward.parents();
+        byte[] backwardParent = backward.parents();
+        int[] neighbors = new int[GridGraph.MAX_NEIGHBORS];
+
+        forward.reach(start, 0.0, PathUtils.NO_PARENT);
+        backward.reach(end, 0.0, PathUtils.NO_PARENT);
+        forwardQueue.insertOrDecrease(start, potential(grid, start, start, end));
+        backwardQueue.insertOrDecrease(end, -potential(grid, end, start, end));
+
+        double best = Double.POSITIVE_INFINITY;
+        int meetFrom = -1;
+        int meetTo = -1;
+        int forwardExplored = 0;
+        int backwardExplored = 0;
+        ClosestCell closest = new ClosestCell(grid, end, start);
+
+        // Either side running dry means it has settled everything connected to its
+        // end, so any path would already have been seen.
+        while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+            if (budget.isExhausted(forwardExplored + backwardExplored, forwardQueue.size() + backwardQueue.size())) {
+                break;
+            }
+            if (forwardQueue.peekKey() + backwardQueue.peekKey() >= best) {
+                break;
+            }
+
+            double forwardKey = forwardQueue.peekKey();
+            double backwardKey = backwardQueue.peekKey();
+            // Ties are common on uniform grids; giving them to the smaller frontier keeps
+            // one side from doing all the work.
+            if (forwardKey < backwardKey
+                    || (forwardKey == backwardKey && forwardQueue.size() <= backwardQueue.size())) {
+                int cell = forwardQueue.poll();
+                forward.close(cell);
+                closest.offer(cell);
+                trace.record(cell);
+                forwardExplored++;
+
+                double cellCost = forward.cost(cell);
+                int count = grid.getNeighbors(cell, null, neighbors);
+                for (int i = 0; i < count; i++) {
+                    int neighbor = neighbors[i];
+                    if (forward.isClosed(neighbor)) {
+                        continue;
+                    }
+                    double cost = cellCost + grid.getMovementCost(cell, neighbor);
+                    if (cost < forward.cost(neighbor)) {
+                        forward.reach(neighbor, cost, PathUtils.link(grid, neighbor, cell));
+                        forwardQueue.insertOrDecrease(neighbor, cost + potential(grid, neighbor, start, end));
+                    }
+                    double total = cost + backward.cost(neighbor);
+                    if (total < best) {
+                        best = total;
+                        meetFrom = cell;
+                        meetTo = neighbor;
+                    }
+                }
+            } else {
+                int cell = backwardQueue.poll();
+                backward.close(cell);
+                trace.record(cell);
+                backwardExplored++;
+                if (grid.isImpassable(cell)) {
+                    // An end on a wall cannot be entered from anywhere.
+                    continue;
+                }
+
+                double cellCost = backward.cost(cell);
+                int count = grid.getNeighbors(cell, null, neighbors);
+                for (int i = 0; i < count; i++) {
+                    int neighbor = neighbors[i];
+                    if (backward.isClosed(neighbor)) {
+                        continue;
+                    }
+                    double cost = cellCost + grid.getMovementCost(neighbor, cell);
+                    if (cost < backward.cost(neighbor)) {
+                        backward.reach(neighbor, cost, PathUtils.link(grid, neighbor, cell));
+                        backwardQueue.insertOrDecrease(neighbor, cost - potential(grid, neighbor, start, end));
+                    }
+                    double total = forward.cost(neighbor) + grid.getMovementCost(neighbor, cell) + cellCost;
+                    if (total < best) {
+                        best = total;
+                        meetFrom = neighbor;
+                        meetTo = cell;
+                    }
+                }
+            }
+        }
+
+        budget.searchEnded();
+        if (meetFrom < 0) {
+            if (budget.isExhausted()) {
+                // Nothing joins the two sides yet; fall back to the forward side's progress.
+                return response(PathUtils.reconstructPath(forwardParent, closest.get(), grid), trace,
+                    forwardExplored, backwardExplored, false, budget);
+            }
+            return response(new ArrayList<>(), trace, forwardExplored, backwardExplored, false, budget);
+        }
+
+        List<Point> path = PathUtils.reconstructPath(forwardParent, meetFrom, grid);
+        for (int cell = meetTo; ; cell = PathUtils.follow(grid, cell, backwardParent[cell])) {
+            path.add(grid.toPoint(cell));
+            if (backwardParent[cell] == PathUtils.NO_PARENT) {
+                break;
+            }
+        }
+        // A stopped search still returns a complete path when the sides have met, but it
+        // may not be the shortest one.
+        return response(path, trace, forwardExplored, backwardExplored, true, budget);
+    }
+
+    private PathfindingResponse response(List<Point> path, ExplorationTrace trace,
+                                         int forwardExplored, int backwardExplored, boolean found,
+                                         SearchBudget budget) {
+        PathfindingResponse response = new PathfindingResponse(
+            path, trace.toPoints(), forwardExplored + backwardExplored, 0, found, getAlgorithmName());
+        response.setStatus(budget.getStatus());
+        response.setForwardNodesExplored(forwardExplored);
+        response.setBackwardNodesExplored(backwardExplored);
+        return response;
+    }
+}
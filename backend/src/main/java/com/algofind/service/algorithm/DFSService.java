@@ -1,46 +1,58 @@
 package com.algofind.service.algorithm;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 import org.springframework.stereotype.Service;
 
 import com.algofind.dto.PathfindingRequest;
 import com.algofind.dto.PathfindingRequest.Point;
 import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ConnectedComponents;
+import com.algofind.model.ExplorationTrace;
 import com.algofind.model.GridGraph;
+import com.algofind.model.SearchBudget;
 import com.algofind.service.PathfindingService;
 import com.algofind.util.PathUtils;
 
 @Service
 public class DFSService implements PathfindingService {
 
+    private static final int INITIAL_STACK_CAPACITY = 256;
+
     @Override
-    public PathfindingResponse execute(PathfindingRequest request) {
-        GridGraph grid = GridGraph.from(request);
-        Point start = request.getStart();
-        Point end = request.getEnd();
+    public PathfindingResponse execute(PathfindingRequest request, GridGraph grid, ExplorationTrace trace,
+                                       SearchBudget budget) {
+        int start = grid.indexOf(request.getStart());
+        int end = grid.indexOf(request.getEnd());
+        if (ConnectedComponents.isUnreachable(grid, start, end)) {
+            return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), 0, 0, false, getAlgorithmName());
+        }
 
-        Set<Point> visited = new HashSet<>();
-        Map<Point, Point> parent = new HashMap<>();
-        List<Point> visitedPath = new ArrayList<>();
+        BitSet visited = new BitSet(grid.getCellCount());
+        byte[] parent = new byte[grid.getCellCount()];
 
-        visited.add(start);
-        visitedPath.add(start);
-        parent.put(start, null);
+        visited.set(start);
+        trace.record(start);
+        parent[start] = PathUtils.NO_PARENT;
 
-        boolean found = dfs(grid, start, end, visited, parent, visitedPath);
+        boolean found = dfs(grid, start, end, visited, parent, trace, budget);
 
         if (found) {
-            List<Point> path = PathUtils.reconstructPath(parent, end);
-            return new PathfindingResponse(path, visitedPath, visitedPath.size(), 0, true, getAlgorithmName());
+            budget.searchEnded();
+            List<Point> path = PathUtils.reconstructPath(parent, end, grid);
+            return new PathfindingResponse(path, trace.toPoints(), trace.size(), 0, true, getAlgorithmName());
+        }
+
+        if (budget.isExhausted()) {
+            int closest = PathUtils.closestTo(grid, visited, end, start);
+            List<Point> path = PathUtils.reconstructPath(parent, closest, grid);
+            return budget.stoppedResponse(path, trace, trace.size(), getAlgorithmName());
         }
 
-        return new PathfindingResponse(new ArrayList<>(), visitedPath, visitedPath.size(), 0, false, getAlgorithmName());
+        return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), trace.size(), 0, false, getAlgorithmName());
     }
 
     @Override
@@ -48,24 +60,56 @@ public class DFSService implements PathfindingService {
         return "DFS";
     }
 
-    private boolean dfs(GridGraph grid, Point current, Point end,
-                        Set<Point> visited, Map<Point, Point> parent,
-                        List<Point> visitedPath) {
-        if (current.equals(end)) {
+    // Iterative so that long corridors cannot overflow the thread stack. Each frame is
+    // a cell and the next direction to try from it, visited in the same order as the
+    // recursive version: a neighbor is explored in full before its next sibling.
+    private boolean dfs(GridGraph grid, int start, int end,
+                        BitSet visited, byte[] parent,
+                        ExplorationTrace trace, SearchBudget budget) {
+        if (start == end) {
             return true;
         }
+        if (budget.isExhausted(trace.size(), 1)) {
+            return false;
+        }
 
-        for (Point neighbor : grid.getNeighbors(current, visited)) {
-            if (visited.contains(neighbor)) continue;
-            visited.add(neighbor);
-            visitedPath.add(neighbor);
-            parent.put(neighbor, current);
+        int[] cells = new int[INITIAL_STACK_CAPACITY];
+        byte[] nextDirection = new byte[INITIAL_STACK_CAPACITY];
+        cells[0] = start;
+        int depth = 1;
 
-            if (dfs(grid, neighbor, end, visited, parent, visitedPath)) {
+        while (depth > 0) {
+            int top = depth - 1;
+            int direction = nextDirection[top];
+            if (direction == grid.getDirectionCount()) {
+                depth--;
+                continue;
+            }
+            nextDirection[top]++;
+
+            int current = cells[top];
+            int neighbor = grid.getNeighbor(current, direction);
+            if (neighbor < 0 || visited.get(neighbor)) continue;
+            visited.set(neighbor);
+            trace.record(neighbor);
+            parent[neighbor] = PathUtils.link(grid, neighbor, current);
+
+            if (neighbor == end) {
                 return true;
             }
+            if (budget.isExhausted(trace.size(), depth + 1)) {
+                return false;
+            }
+
+            if (depth == cells.length) {
+                cells = Arrays.copyOf(cells, depth * 2);
+                nextDirection = Arrays.copyOf(nextDirection, depth * 2);
+            }
+            cells[depth] = neighbor;
+            nextDirection[depth] = 0;
+            depth++;
         }
 
         return false;
     }
-}
\ No newline at end of file
+}
@@ -3,79 +3,168 @@ package com.algofind.service.algorithm;
 import com.algofind.dto.PathfindingRequest;
 import com.algofind.dto.PathfindingRequest.Point;
 import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ConnectedComponents;
+import com.algofind.model.ExplorationTrace;
 import com.algofind.model.GridGraph;
+import com.algofind.model.SearchBudget;
 import com.algofind.service.PathfindingService;
+import com.algofind.service.SearchWorkspacePool;
+import com.algofind.util.BucketQueue;
+import com.algofind.util.ClosestCell;
+import com.algofind.util.IndexedMinHeap;
 import com.algofind.util.PathUtils;
+import com.algofind.util.SearchWorkspace;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 
+/**
+ * Dijkstra's algorithm. When every move costs a small whole number, which holds on
+ * 4-connected grids with whole-number weights, the frontier is kept in a bucket queue
+ * (Dial's algorithm) rather than a heap, making each queue operation constant time.
+ */
 @Service
 public class DijkstraService implements PathfindingService {
 
-    private static class Node implements Comparable<Node> {
-        final Point point;
-        final double distance;
+    // Past this, the buckets swept over between costs found outweigh the heap's log factor.
+    private static final int MAX_BUCKET_STEP = 1024;
 
-        Node(Point point, double distance) {
-            this.point = point;
-            this.distance = distance;
-        }
+    private final SearchWorkspacePool workspacePool;
 
-        @Override
-        public int compareTo(Node other) {
-            return Double.compare(this.distance, other.distance);
-        }
+    public DijkstraService(SearchWorkspacePool workspacePool) {
+        this.workspacePool = workspacePool;
     }
 
     @Override
-    public PathfindingResponse execute(PathfindingRequest request) {
-        GridGraph grid = GridGraph.from(request);
-        Point start = request.getStart();
-        Point end = request.getEnd();
+    public PathfindingResponse execute(PathfindingRequest request, GridGraph grid, ExplorationTrace trace,
+                                       SearchBudget budget) {
+        int start = grid.indexOf(request.getStart());
+        int end = grid.indexOf(request.getEnd());
+        if (ConnectedComponents.isUnreachable(grid, start, end)) {
+            return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), 0, 0, false, getAlgorithmName());
+        }
+
+        SearchWorkspace workspace = workspacePool.acquire(grid.getCellCount());
+        try {
+            int maxStep = grid.getMaxIntegerMoveCost();
+            if (maxStep > 0 && maxStep <= MAX_BUCKET_STEP) {
+                return searchBuckets(grid, start, end, trace, budget, workspace, maxStep);
+            }
+            return search(grid, start, end, trace, budget, workspace);
+        } finally {
+            workspacePool.release(workspace);
+        }
+    }
 
-        PriorityQueue<Node> pq = new PriorityQueue<>();
-        Map<Point, Double> distances = new HashMap<>();
-        Map<Point, Point> parent = new HashMap<>();
-        Set<Point> visited = new HashSet<>();
-        List<Point> visitedPath = new ArrayList<>();
+    private PathfindingResponse search(GridGraph grid, int start, int end, ExplorationTrace trace,
+                                       SearchBudget budget, SearchWorkspace workspace) {
+        IndexedMinHeap pq = workspace.queue();
+        byte[] parent = workspace.parents();
+        int[] neighbors = new int[GridGraph.MAX_NEIGHBORS];
 
-        pq.offer(new Node(start, 0.0));
-        distances.put(start, 0.0);
-        parent.put(start, null);
+        pq.insertOrDecrease(start, 0.0);
+        workspace.reach(start, 0.0, PathUtils.NO_PARENT);
 
+        ClosestCell closest = new ClosestCell(grid, end, start);
         int nodesExplored = 0;
 
         while (!pq.isEmpty()) {
-            Node current = pq.poll();
-            Point currentPoint = current.point;
-
-            if (visited.contains(currentPoint)) {
-                continue;
+            if (budget.isExhausted(nodesExplored, pq.size())) {
+                List<Point> path = PathUtils.reconstructPath(parent, closest.get(), grid);
+                return budget.stoppedResponse(path, trace, nodesExplored, getAlgorithmName());
             }
 
-            visited.add(currentPoint);
-            visitedPath.add(currentPoint);
+            int currentCell = pq.poll();
+            workspace.close(currentCell);
+            closest.offer(currentCell);
+            trace.record(currentCell);
             nodesExplored++;
 
-            if (currentPoint.equals(end)) {
-                List<Point> path = PathUtils.reconstructPath(parent, end);
-                return new PathfindingResponse(path, visitedPath, nodesExplored, 0, true, getAlgorithmName());
+            if (currentCell == end) {
+                budget.searchEnded();
+                List<Point> path = PathUtils.reconstructPath(parent, end, grid);
+                return new PathfindingResponse(path, trace.toPoints(), nodesExplored, 0, true, getAlgorithmName());
             }
 
-            for (Point neighbor : grid.getNeighbors(currentPoint, visited)) {
-                double movementCost = grid.getMovementCost(currentPoint, neighbor);
-                double newDistance = distances.get(currentPoint) + movementCost;
+            double distance = workspace.cost(currentCell);
+            int count = grid.getNeighbors(currentCell, null, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (workspace.isClosed(neighbor)) {
+                    continue;
+                }
+                double movementCost = grid.getMovementCost(currentCell, neighbor);
+                double newDistance = distance + movementCost;
 
-                if (!distances.containsKey(neighbor) || newDistance < distances.get(neighbor)) {
-                    distances.put(neighbor, newDistance);
-                    parent.put(neighbor, currentPoint);
-                    pq.offer(new Node(neighbor, newDistance));
+                if (newDistance < workspace.cost(neighbor)) {
+                    workspace.reach(neighbor, newDistance, PathUtils.link(grid, neighbor, currentCell));
+                    pq.insertOrDecrease(neighbor, newDistance);
+                }
+            }
+        }
+
+        return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), nodesExplored, 0, false, getAlgorithmName());
+    }
+
+    private PathfindingResponse searchBuckets(GridGraph grid, int start, int end, ExplorationTrace trace,
+                                              SearchBudget budget, SearchWorkspace workspace, int maxStep) {
+        BucketQueue queue = workspace.bucketQueue(maxStep);
+        byte[] parent = workspace.parents();
+        int[] neighbors = new int[GridGraph.MAX_NEIGHBORS];
+
+        queue.insert(start, 0);
+        workspace.reach(start, 0.0, PathUtils.NO_PARENT);
+
+        ClosestCell closest = new ClosestCell(grid, end, start);
+        int nodesExplored = 0;
+        // Cells reached but not settled; the queue also holds entries left behind.
+        int frontier = 1;
+
+        while (!queue.isEmpty()) {
+            if (budget.isExhausted(nodesExplored, frontier)) {
+                List<Point> path = PathUtils.reconstructPath(parent, closest.get(), grid);
+                return budget.stoppedResponse(path, trace, nodesExplored, getAlgorithmName());
+            }
+
+            int currentCell = queue.poll();
+            // An entry left behind when a cheaper one was queued.
+            if (workspace.isClosed(currentCell)) {
+                continue;
+            }
+            workspace.close(currentCell);
+            frontier--;
+            closest.offer(currentCell);
+            trace.record(currentCell);
+            nodesExplored++;
+
+            if (currentCell == end) {
+                budget.searchEnded();
+                List<Point> path = PathUtils.reconstructPath(parent, end, grid);
+                return new PathfindingResponse(path, trace.toPoints(), nodesExplored, 0, true, getAlgorithmName());
+            }
+
+            long distance = (long) workspace.cost(currentCell);
+            int count = grid.getNeighbors(currentCell, null, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (workspace.isClosed(neighbor)) {
+                    continue;
+                }
+                // Every move is orthogonal here, so it costs one plus the entry cost.
+                long newDistance = distance + 1 + (long) grid.getEntryCost(neighbor);
+
+                double oldDistance = workspace.cost(neighbor);
+                if (newDistance < oldDistance) {
+                    if (oldDistance == Double.POSITIVE_INFINITY) {
+                        frontier++;
+                    }
+                    workspace.reach(neighbor, newDistance, PathUtils.link(grid, neighbor, currentCell));
+                    queue.insert(neighbor, newDistance);
                 }
             }
         }
 
-        return new PathfindingResponse(new ArrayList<>(), visitedPath, nodesExplored, 0, false, getAlgorithmName());
+        return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), nodesExplored, 0, false, getAlgorithmName());
     }
 
     @Override
@@ -0,0 +1,70 @@
+package com.algofind.service.algorithm;
+
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingRequest.Point;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ConnectedComponents;
+import com.algofind.model.ExplorationTrace;
+import com.algofind.model.FlowField;
+import com.algofind.model.FlowFieldCache;
+import com.algofind.model.GridGraph;
+import com.algofind.model.SearchBudget;
+import com.algofind.service.PathfindingService;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Many starts, one goal. The first query for a goal runs one reverse Dijkstra from it
+ * over the whole grid and caches the result on the grid; every later query for that
+ * goal (in a batch, or against a stored map) only walks its path. The visited cells
+ * and node count are those of the build, or just the path on a cached field.
+ *
+ * <p>A field cut short could not be shared with later queries, so the build itself
+ * takes no budget. A request with a budget uses the field only once it is built, and
+ * otherwise runs A* within that budget rather than build it or wait on another build.
+ */
+@Service
+public class FlowFieldService implements PathfindingService {
+
+    private final AStarService aStarService;
+
+    public FlowFieldService(AStarService aStarService) {
+        this.aStarService = aStarService;
+    }
+
+    @Override
+    public PathfindingResponse execute(PathfindingRequest request, GridGraph grid, ExplorationTrace trace,
+                                       SearchBudget budget) {
+        int start = grid.indexOf(request.getStart());
+        int end = grid.indexOf(request.getEnd());
+        if (ConnectedComponents.isUnreachable(grid, start, end)) {
+            return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), 0, 0, false, getAlgorithmName());
+        }
+
+        FlowField field = grid.getDerived(FlowFieldCache.class, FlowFieldCache::new).get(end);
+        if (budget.isBounded() && !field.isBuilt()) {
+            return aStarService.execute(grid, start, end, trace, budget, cell -> grid.estimateCost(cell, end),
+                getAlgorithmName());
+        }
+        boolean built = field.ensureBuilt(trace);
+        budget.searchEnded();
+
+        int[] cells = field.pathFrom(start);
+        int nodesExplored = built ? field.getCellsSettled() : (cells != null ? cells.length : 0);
+        if (cells == null) {
+            return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), nodesExplored, 0, false, getAlgorithmName());
+        }
+
+        List<Point> path = new ArrayList<>(cells.length);
+        for (int cell : cells) {
+            path.add(grid.toPoint(cell));
+        }
+        return new PathfindingResponse(path, trace.toPoints(), nodesExplored, 0, true, getAlgorithmName());
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "FLOW_FIELD";
+    }
+}
@@ -0,0 +1,65 @@
+package com.algofind.service.algorithm;
+
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingRequest.Point;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ConnectedComponents;
+import com.algofind.model.ExplorationTrace;
+import com.algofind.model.GridGraph;
+import com.algofind.model.HierarchicalGraph;
+import com.algofind.model.SearchBudget;
+import com.algofind.service.PathfindingService;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Hierarchical A* (HPA*). The abstract graph is built on first use and cached on the
+ * grid, so repeated queries against a stored map only pay for the abstract search and
+ * the refinement of its result. Paths are near-optimal. The abstract graph only links
+ * clusters through orthogonal moves, so when it finds nothing the query is handed to
+ * A*, which also covers maps joined only diagonally across a cluster corner.
+ */
+@Service
+public class HPAStarService implements PathfindingService {
+
+    private final AStarService aStarService;
+
+    public HPAStarService(AStarService aStarService) {
+        this.aStarService = aStarService;
+    }
+
+    @Override
+    public PathfindingResponse execute(PathfindingRequest request, GridGraph grid, ExplorationTrace trace,
+                                       SearchBudget budget) {
+        int start = grid.indexOf(request.getStart());
+        int end = grid.indexOf(request.getEnd());
+        if ((start != end && grid.isImpassable(end)) || ConnectedComponents.isUnreachable(grid, start, end)) {
+            return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), 0, 0, false, getAlgorithmName());
+        }
+
+        HierarchicalGraph hierarchy = grid.getDerived(HierarchicalGraph.class, HierarchicalGraph::new);
+        HierarchicalGraph.Route route = hierarchy.findPath(start, end, budget);
+        if (route.cells() == null) {
+            return aStarService.execute(request, grid, trace, budget);
+        }
+
+        for (int cell : route.abstractNodesVisited()) {
+            trace.record(cell);
+        }
+
+        List<Point> path = new ArrayList<>(route.cells().length);
+        for (int cell : route.cells()) {
+            path.add(grid.toPoint(cell));
+        }
+        if (budget.isExhausted()) {
+            return budget.stoppedResponse(path, trace, route.nodesExpanded(), getAlgorithmName());
+        }
+        return new PathfindingResponse(path, trace.toPoints(), route.nodesExpanded(), 0, true, getAlgorithmName());
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "HPA_STAR";
+    }
+}
@@ -0,0 +1,277 @@
+package com.algofind.service.algorithm;
+
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingRequest.Point;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.ConnectedComponents;
+import com.algofind.model.ExplorationTrace;
+import com.algofind.model.GridGraph;
+import com.algofind.model.SearchBudget;
+import com.algofind.service.PathfindingService;
+import com.algofind.service.SearchWorkspacePool;
+import com.algofind.util.ClosestCell;
+import com.algofind.util.IndexedMinHeap;
+import com.algofind.util.PathUtils;
+import com.algofind.util.SearchWorkspace;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Jump Point Search: A* over jump points only, pruning the symmetric paths a uniform-cost
+ * grid has in open areas. Diagonal grids use the corner-cutting rules (GridGraph lets a
+ * diagonal move pass between two walls); 4-connected grids treat vertical moves like
+ * diagonals, checking for horizontal jump points at every step. The pruning rules assume
+ * every move costs the same, so grids with weighted cells are handed to A*.
+ *
+ * <p>Search state lives in a pooled {@link SearchWorkspace}. A jump point's parent link
+ * holds only the direction back to the jump point it was reached from; the path is
+ * rebuilt by walking that way to the first settled cell that accounts for its cost.
+ */
+@Service
+public class JPSService implements PathfindingService {
+
+    // Allowed rounding when matching a jump point's cost to the run back to its parent.
+    private static final double COST_SLACK = 1e-6;
+
+    private final AStarService aStarService;
+    private final SearchWorkspacePool workspacePool;
+
+    public JPSService(AStarService aStarService, SearchWorkspacePool workspacePool) {
+        this.aStarService = aStarService;
+        this.workspacePool = workspacePool;
+    }
+
+    @Override
+    public PathfindingResponse execute(PathfindingRequest request, GridGraph grid, ExplorationTrace trace,
+                                       SearchBudget budget) {
+        if (grid.hasWeights()) {
+            return aStarService.execute(request, grid, trace, budget);
+        }
+
+        int start = grid.indexOf(request.getStart());
+        int end = grid.indexOf(request.getEnd());
+        if (ConnectedComponents.isUnreachable(grid, start, end)) {
+            return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), 0, 0, false, getAlgorithmName());
+        }
+
+        SearchWorkspace workspace = workspacePool.acquire(grid.getCellCount());
+        try {
+            return search(grid, start, end, trace, budget, workspace);
+        } finally {
+            workspacePool.release(workspace);
+        }
+    }
+
+    private PathfindingResponse search(GridGraph grid, int start, int end, ExplorationTrace trace,
+                                       SearchBudget budget, SearchWorkspace workspace) {
+        IndexedMinHeap openSet = workspace.queue();
+        byte[] parent = workspace.parents();
+        int[] successors = new int[GridGraph.MAX_NEIGHBORS * 2];
+
+        openSet.insertOrDecrease(start, grid.estimateCost(start, end));
+        workspace.reach(start, 0.0, PathUtils.NO_PARENT);
+
+        ClosestCell closest = new ClosestCell(grid, end, start);
+        int nodesExplored = 0;
+
+        while (!openSet.isEmpty()) {
+            if (budget.isExhausted(nodesExplored, openSet.size())) {
+                return budget.stoppedResponse(expandPath(grid, workspace, closest.get()), trace, nodesExplored,
+                    getAlgorithmName());
+            }
+
+            int currentCell = openSet.poll();
+            workspace.close(currentCell);
+            closest.offer(currentCell);
+            trace.record(currentCell);
+            nodesExplored++;
+
+            if (currentCell == end) {
+                budget.searchEnded();
+                List<Point> path = expandPath(grid, workspace, end);
+                return new PathfindingResponse(path, trace.toPoints(), nodesExplored, 0, true, getAlgorithmName());
+            }
+
+            double currentG = workspace.cost(currentCell);
+            int count = prunedDirections(grid, currentCell, parent[currentCell], successors);
+            for (int i = 0; i < count; i += 2) {
+                int dx = successors[i];
+                int dy = successors[i + 1];
+                int jumpPoint = jump(grid, currentCell, dx, dy, end, budget);
+                if (jumpPoint < 0 || workspace.isClosed(jumpPoint)) {
+                    continue;
+                }
+
+                double tentativeGScore = currentG + grid.estimateCost(currentCell, jumpPoint);
+                if (tentativeGScore < workspace.cost(jumpPoint)) {
+                    // The cell before the jump point on the run points back along it.
+                    int previous = jumpPoint - dy * grid.getWidth() - dx;
+                    workspace.reach(jumpPoint, tentativeGScore, PathUtils.link(grid, jumpPoint, previous));
+                    openSet.insertOrDecrease(jumpPoint, tentativeGScore + grid.estimateCost(jumpPoint, end));
+                }
+            }
+        }
+
+        if (budget.isExhausted()) {
+            // Time ran out mid-jump, and the jump points it cut off were all that was left.
+            return budget.stoppedResponse(expandPath(grid, workspace, closest.get()), trace, nodesExplored,
+                getAlgorithmName());
+        }
+        return new PathfindingResponse(new ArrayList<>(), trace.toPoints(), nodesExplored, 0, false, getAlgorithmName());
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "JPS";
+    }
+
+    // Writes (dx, dy) pairs for the directions worth jumping in from cell, given the
+    // link back towards the jump point it was reached from, and returns the number of
+    // ints written.
+    private int prunedDirections(GridGraph grid, int cell, byte parentLink, int[] out) {
+        int x = grid.getX(cell);
+        int y = grid.getY(cell);
+        int count = 0;
+
+        if (parentLink == PathUtils.NO_PARENT) {
+            for (int direction = 0; direction < grid.getDirectionCount(); direction++) {
+                int neighbor = grid.getNeighbor(cell, direction);
+                if (neighbor >= 0) {
+                    out[count++] = grid.getX(neighbor) - x;
+                    out[count++] = grid.getY(neighbor) - y;
+                }
+            }
+            return count;
+        }
+
+        int dx = 1 - parentLink % 3;
+        int dy = 1 - parentLink / 3;
+
+        if (grid.isAllowDiagonal()) {
+            if (dx != 0 && dy != 0) {
+                count = add(out, count, 0, dy);
+                count = add(out, count, dx, 0);
+                count = add(out, count, dx, dy);
+                if (!grid.isPassable(x - dx, y)) {
+                    count = add(out, count, -dx, dy);
+                }
+                if (!grid.isPassable(x, y - dy)) {
+                    count = add(out, count, dx, -dy);
+                }
+            } else if (dx != 0) {
+                count = add(out, count, dx, 0);
+                if (!grid.isPassable(x, y + 1)) {
+                    count = add(out, count, dx, 1);
+                }
+                if (!grid.isPassable(x, y - 1)) {
+                    count = add(out, count, dx, -1);
+                }
+            } else {
+                count = add(out, count, 0, dy);
+                if (!grid.isPassable(x + 1, y)) {
+                    count = add(out, count, 1, dy);
+                }
+                if (!grid.isPassable(x - 1, y)) {
+                    count = add(out, count, -1, dy);
+                }
+            }
+        } else if (dx != 0) {
+            count = add(out, count, dx, 0);
+            count = add(out, count, 0, 1);
+            count = add(out, count, 0, -1);
+        } else {
+            count = add(out, count, 0, dy);
+            count = add(out, count, 1, 0);
+            count = add(out, count, -1, 0);
+        }
+
+        return count;
+    }
+
+    private int add(int[] out, int count, int dx, int dy) {
+        out[count] = dx;
+        out[count + 1] = dy;
+        return count + 2;
+    }
+
+    // Walks from cell in direction (dx, dy) and returns the first jump point, or -1
+    // when the ray runs into a wall or the edge of the grid first. One jump can scan
+    // a large part of the grid, so the time budget is checked at every cell; once it
+    // runs out, every jump returns -1.
+    private int jump(GridGraph grid, int cell, int dx, int dy, int end, SearchBudget budget) {
+        int x = grid.getX(cell) + dx;
+        int y = grid.getY(cell) + dy;
+
+        while (grid.isPassable(x, y)) {
+            if (budget.isExhaustedWithinExpansion()) {
+                return -1;
+            }
+            int current = grid.indexOf(x, y);
+            if (current == end || hasForcedNeighbor(grid, x, y, dx, dy)) {
+                return current;
+            }
+
+            if (dx != 0 && dy != 0) {
+                if (jump(grid, current, dx, 0, end, budget) >= 0 || jump(grid, current, 0, dy, end, budget) >= 0) {
+                    return current;
+                }
+            } else if (dy != 0 && !grid.isAllowDiagonal()) {
+                if (jump(grid, current, 1, 0, end, budget) >= 0 || jump(grid, current, -1, 0, end, budget) >= 0) {
+                    return current;
+                }
+            }
+
+            x += dx;
+            y += dy;
+        }
+
+        return -1;
+    }
+
+    private boolean hasForcedNeighbor(GridGraph grid, int x, int y, int dx, int dy) {
+        if (!grid.isAllowDiagonal()) {
+            if (dx != 0) {
+                return (grid.isPassable(x, y - 1) && !grid.isPassable(x - dx, y - 1))
+                    || (grid.isPassable(x, y + 1) && !grid.isPassable(x - dx, y + 1));
+            }
+            return (grid.isPassable(x - 1, y) && !grid.isPassable(x - 1, y - dy))
+                || (grid.isPassable(x + 1, y) && !grid.isPassable(x + 1, y - dy));
+        }
+
+        if (dx != 0 && dy != 0) {
+            return (grid.isPassable(x - dx, y + dy) && !grid.isPassable(x - dx, y))
+                || (grid.isPassable(x + dx, y - dy) && !grid.isPassable(x, y - dy));
+        }
+        if (dx != 0) {
+            return (grid.isPassable(x + dx, y + 1) && !grid.isPassable(x, y + 1))
+                || (grid.isPassable(x + dx, y - 1) && !grid.isPassable(x, y - 1));
+        }
+        return (grid.isPassable(x + 1, y + dy) && !grid.isPassable(x + 1, y))
+            || (grid.isPassable(x - 1, y + dy) && !grid.isPassable(x - 1, y));
+    }
+
+    // Jump points are joined by straight or diagonal runs; fill in every cell between
+    // them. Walking back along a run, the first settled cell whose cost plus the run
+    // to it adds up to the jump point's cost is its parent, or a cell that reaches the
+    // start just as cheaply. Either way the cost falls at every jump, so the walk ends.
+    private List<Point> expandPath(GridGraph grid, SearchWorkspace workspace, int end) {
+        byte[] parent = workspace.parents();
+        List<Point> path = new ArrayList<>();
+        int cell = end;
+        path.add(grid.toPoint(cell));
+        while (parent[cell] != PathUtils.NO_PARENT) {
+            byte link = parent[cell];
+            double cost = workspace.cost(cell);
+            int from = cell;
+            do {
+                from = PathUtils.follow(grid, from, link);
+                path.add(grid.toPoint(from));
+            } while (!workspace.isClosed(from)
+                || workspace.cost(from) + grid.estimateCost(from, cell) > cost + COST_SLACK);
+            cell = from;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
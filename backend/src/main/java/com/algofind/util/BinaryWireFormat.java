@@ -0,0 +1,501 @@
+package com.algofind.util;
+
+import com.algofind.dto.PathfindingRequest;
+import com.algofind.dto.PathfindingRequest.Algorithm;
+import com.algofind.dto.PathfindingRequest.Point;
+import com.algofind.dto.PathfindingResponse;
+import com.algofind.model.GridGraph;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Compact binary encoding of pathfinding requests and responses, served as
+ * {@value #MEDIA_TYPE}. Integers are unsigned LEB128 varints; coordinates and deltas
+ * are zigzag-encoded first. Both messages start with the bytes {@code 'A' 'G'}, the
+ * format version and a message kind.
+ *
+ * <p>Request, after the header: a flags byte (see the {@code FLAG_} constants), the
+ * algorithm ordinal, either width and height or gridSize, start x/y and end x/y,
+ * visitedStride and visitedLimit when flagged, and when the budget flag is set
+ * maxTimeMs, maxNodes and maxFrontier, each 0 when not given, then the zigzag-encoded
+ * seed when flagged. Then the walls: encoding 0 for none, 1 for a row-major bit mask with the lowest bit of
+ * each byte first, or 2 for a run count followed by alternating open/wall run
+ * lengths, starting with open. Then the weights: the number of distinct weights,
+ * each as a 4-byte float, and if there are any, (run length, weight index) pairs
+ * covering every cell, where index 0 is unweighted and the rest are 1-based.
+ *
+ * <p>Response, after the header: a flags byte, the algorithm name (length-prefixed
+ * UTF-8), nodesExplored and executionTimeMs, the path, then when flagged the visited
+ * cells, the per-side node counts and the status ordinal (absent means COMPLETE). Point lists are a count, the first point and
+ * then each point as the delta from the previous one.
+ */
+public final class BinaryWireFormat {
+
+    public static final String MEDIA_TYPE = "application/x-algograph";
+
+    private static final int MAGIC_A = 'A';
+    private static final int MAGIC_G = 'G';
+    private static final int VERSION = 1;
+    private static final int KIND_REQUEST = 1;
+    private static final int KIND_RESPONSE = 2;
+
+    private static final int FLAG_ALLOW_DIAGONAL = 1;
+    private static final int FLAG_INCLUDE_VISITED_SET = 1 << 1;
+    private static final int FLAG_INCLUDE_VISITED = 1 << 2;
+    private static final int FLAG_LARGE_MAP = 1 << 3;
+    private static final int FLAG_VISITED_STRIDE = 1 << 4;
+    private static final int FLAG_VISITED_LIMIT = 1 << 5;
+    private static final int FLAG_BUDGET = 1 << 6;
+    private static final int FLAG_SEED = 1 << 7;
+
+    private static final int FLAG_PATH_FOUND = 1;
+    private static final int FLAG_VISITED = 1 << 1;
+    private static final int FLAG_SIDE_COUNTS = 1 << 2;
+    private static final int FLAG_STATUS = 1 << 3;
+
+    private static final int MAX_WEIGHTS = 255;
+
+    private static final int WALLS_NONE = 0;
+    private static final int WALLS_MASK = 1;
+    private static final int WALLS_RUNS = 2;
+
+    private BinaryWireFormat() {}
+
+    public static PathfindingRequest readRequest(InputStream stream) throws IOException {
+        return readRequest(stream, request -> {});
+    }
+
+    /**
+     * Reads a request, handing it to {@code beforeGrid} once every field but the grid
+     * is set, so that a request rejected there never has its grid allocated.
+     */
+    public static PathfindingRequest readRequest(InputStream stream, Consumer<PathfindingRequest> beforeGrid)
+            throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        readHeader(in, KIND_REQUEST);
+
+        int flags = in.readUnsignedByte();
+        int ordinal = readVarint(in);
+        Algorithm[] algorithms = Algorithm.values();
+        if (ordinal >= algorithms.length) {
+            throw new IOException("Unknown algorithm " + ordinal);
+        }
+
+        PathfindingRequest request = new PathfindingRequest();
+        request.setAlgorithm(algorithms[ordinal]);
+        request.setAllowDiagonal((flags & FLAG_ALLOW_DIAGONAL) != 0);
+        if ((flags & FLAG_INCLUDE_VISITED_SET) != 0) {
+            request.setIncludeVisited((flags & FLAG_INCLUDE_VISITED) != 0);
+        }
+
+        int width;
+        int height;
+        if ((flags & FLAG_LARGE_MAP) != 0) {
+            width = readVarint(in);
+            height = readVarint(in);
+            request.setWidth(width);
+            request.setHeight(height);
+        } else {
+            width = readVarint(in);
+            height = width;
+            request.setGridSize(width);
+        }
+        // Dimensions are validated with the rest of the request, but nothing is
+        // allocated for a grid that could never pass.
+        if (width < 1 || height < 1 || (long) width * height > GridGraph.MAX_CELLS) {
+            throw new IOException("Invalid grid dimensions " + width + "x" + height);
+        }
+
+        request.setStart(new Point(readSigned(in), readSigned(in)));
+        request.setEnd(new Point(readSigned(in), readSigned(in)));
+        if ((flags & FLAG_VISITED_STRIDE) != 0) {
+            request.setVisitedStride(readVarint(in));
+        }
+        if ((flags & FLAG_VISITED_LIMIT) != 0) {
+            request.setVisitedLimit(readVarint(in));
+        }
+        if ((flags & FLAG_BUDGET) != 0) {
+            long maxTimeMs = readVarlong(in);
+            int maxNodes = readVarint(in);
+            int maxFrontier = readVarint(in);
+            request.setMaxTimeMs(maxTimeMs != 0 ? maxTimeMs : null);
+            request.setMaxNodes(maxNodes != 0 ? maxNodes : null);
+            request.setMaxFrontier(maxFrontier != 0 ? maxFrontier : null);
+        }
+        if ((flags & FLAG_SEED) != 0) {
+            request.setSeed(readSignedLong(in));
+        }
+
+        beforeGrid.accept(request);
+
+        int cellCount = width * height;
+        BitSet walls = readWalls(in, cellCount);
+
+        int paletteSize = readVarint(in);
+        if (paletteSize > MAX_WEIGHTS) {
+            throw new IOException("Too many distinct weights: " + paletteSize);
+        }
+        float[] weights = new float[paletteSize];
+        for (int i = 0; i < paletteSize; i++) {
+            weights[i] = in.readFloat();
+            // A barrier weight of zero or less means a wall, which the wall section covers.
+            if (!(weights[i] > 0) || Float.isInfinite(weights[i])) {
+                throw new IOException("Invalid weight " + weights[i]);
+            }
+        }
+        byte[] weightClasses = null;
+        if (paletteSize > 0) {
+            weightClasses = new byte[cellCount];
+            for (int cell = 0; cell < cellCount; ) {
+                int length = readVarint(in);
+                int weightClass = in.readUnsignedByte();
+                if (length == 0 || length > cellCount - cell || weightClass > paletteSize) {
+                    throw new IOException("Invalid weight run at cell " + cell);
+                }
+                if (weightClass != 0) {
+                    Arrays.fill(weightClasses, cell, cell + length, (byte) weightClass);
+                }
+                cell += length;
+            }
+        }
+
+        request.setGrid(GridGraph.fromCells(width, height, request.isAllowDiagonal(), walls, weightClasses, weights));
+        return request;
+    }
+
+    public static void writeRequest(PathfindingRequest request, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        writeHeader(out, KIND_REQUEST);
+
+        boolean largeMap = request.isLargeMap();
+        int width = largeMap ? request.getWidth() : request.getGridSize();
+        int height = largeMap ? request.getHeight() : request.getGridSize();
+        int flags = (request.isAllowDiagonal() ? FLAG_ALLOW_DIAGONAL : 0) | (largeMap ? FLAG_LARGE_MAP : 0);
+        if (request.getIncludeVisited() != null) {
+            flags |= FLAG_INCLUDE_VISITED_SET | (request.getIncludeVisited() ? FLAG_INCLUDE_VISITED : 0);
+        }
+        if (request.getVisitedStride() != null) {
+            flags |= FLAG_VISITED_STRIDE;
+        }
+        if (request.getVisitedLimit() != null) {
+            flags |= FLAG_VISITED_LIMIT;
+        }
+        boolean budget = request.getMaxTimeMs() != null || request.getMaxNodes() != null || request.getMaxFrontier() != null;
+        if (budget) {
+            flags |= FLAG_BUDGET;
+        }
+        if (request.getSeed() != null) {
+            flags |= FLAG_SEED;
+        }
+        out.writeByte(flags);
+        writeVarint(out, request.getAlgorithm().ordinal());
+        writeVarint(out, width);
+        if (largeMap) {
+            writeVarint(out, height);
+        }
+        writeSigned(out, request.getStart().getX());
+        writeSigned(out, request.getStart().getY());
+        writeSigned(out, request.getEnd().getX());
+        writeSigned(out, request.getEnd().getY());
+        if (request.getVisitedStride() != null) {
+            writeVarint(out, request.getVisitedStride());
+        }
+        if (request.getVisitedLimit() != null) {
+            writeVarint(out, request.getVisitedLimit());
+        }
+        if (budget) {
+            writeVarint(out, request.getMaxTimeMs() != null ? request.getMaxTimeMs() : 0);
+            writeVarint(out, request.getMaxNodes() != null ? request.getMaxNodes() : 0);
+            writeVarint(out, request.getMaxFrontier() != null ? request.getMaxFrontier() : 0);
+        }
+        if (request.getSeed() != null) {
+            writeSignedLong(out, request.getSeed());
+        }
+
+        int cellCount = width * height;
+        BitSet walls = new BitSet(cellCount);
+        byte[] weightClasses = new byte[cellCount];
+        Map<Float, Integer> palette = new LinkedHashMap<>();
+        if (request.getBarriers() != null) {
+            for (Point barrier : request.getBarriers()) {
+                if (barrier.getX() < 0 || barrier.getX() >= width || barrier.getY() < 0 || barrier.getY() >= height) {
+                    continue;
+                }
+                int cell = barrier.getY() * width + barrier.getX();
+                if (barrier.getWeight() <= 0) {
+                    walls.set(cell);
+                    weightClasses[cell] = 0;
+                } else {
+                    walls.clear(cell);
+                    weightClasses[cell] = (byte) (int) palette.computeIfAbsent((float) barrier.getWeight(), key -> palette.size() + 1);
+                }
+            }
+        }
+
+        if (palette.size() > MAX_WEIGHTS) {
+            throw new IllegalArgumentException("At most " + MAX_WEIGHTS + " distinct barrier weights are supported");
+        }
+        writeWalls(out, walls, cellCount);
+
+        writeVarint(out, palette.size());
+        for (float weight : palette.keySet()) {
+            out.writeFloat(weight);
+        }
+        if (!palette.isEmpty()) {
+            for (int cell = 0; cell < cellCount; ) {
+                int end = cell + 1;
+                while (end < cellCount && weightClasses[end] == weightClasses[cell]) {
+                    end++;
+                }
+                writeVarint(out, end - cell);
+                out.writeByte(weightClasses[cell]);
+                cell = end;
+            }
+        }
+        out.flush();
+    }
+
+    public static void writeResponse(PathfindingResponse response, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        writeHeader(out, KIND_RESPONSE);
+
+        boolean sideCounts = response.getForwardNodesExplored() != null && response.getBackwardNodesExplored() != null;
+        int flags = (response.isPathFound() ? FLAG_PATH_FOUND : 0)
+            | (response.getVisitedPath() != null ? FLAG_VISITED : 0)
+            | (sideCounts ? FLAG_SIDE_COUNTS : 0)
+            | (response.getStatus() != PathfindingResponse.Status.COMPLETE ? FLAG_STATUS : 0);
+        out.writeByte(flags);
+        out.writeUTF(response.getAlgorithm());
+        writeVarint(out, response.getNodesExplored());
+        writeVarint(out, response.getExecutionTimeMs());
+        writePoints(out, response.getPath());
+        if (response.getVisitedPath() != null) {
+            writePoints(out, response.getVisitedPath());
+        }
+        if (sideCounts) {
+            writeVarint(out, response.getForwardNodesExplored());
+            writeVarint(out, response.getBackwardNodesExplored());
+        }
+        if ((flags & FLAG_STATUS) != 0) {
+            writeVarint(out, response.getStatus().ordinal());
+        }
+        out.flush();
+    }
+
+    public static PathfindingResponse readResponse(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        readHeader(in, KIND_RESPONSE);
+
+        int flags = in.readUnsignedByte();
+        PathfindingResponse response = new PathfindingResponse();
+        response.setPathFound((flags & FLAG_PATH_FOUND) != 0);
+        response.setAlgorithm(in.readUTF());
+        response.setNodesExplored(readVarint(in));
+        response.setExecutionTimeMs(readVarlong(in));
+        response.setPath(readPoints(in));
+        if ((flags & FLAG_VISITED) != 0) {
+            response.setVisitedPath(readPoints(in));
+        }
+        if ((flags & FLAG_SIDE_COUNTS) != 0) {
+            response.setForwardNodesExplored(readVarint(in));
+            response.setBackwardNodesExplored(readVarint(in));
+        }
+        if ((flags & FLAG_STATUS) != 0) {
+            int ordinal = readVarint(in);
+            PathfindingResponse.Status[] statuses = PathfindingResponse.Status.values();
+            if (ordinal >= statuses.length) {
+                throw new IOException("Unknown status " + ordinal);
+            }
+            response.setStatus(statuses[ordinal]);
+        }
+        return response;
+    }
+
+    private static BitSet readWalls(DataInputStream in, int cellCount) throws IOException {
+        int encoding = in.readUnsignedByte();
+        switch (encoding) {
+            case WALLS_NONE:
+                return new BitSet();
+            case WALLS_MASK: {
+                byte[] mask = new byte[(cellCount + 7) / 8];
+                in.readFully(mask);
+                BitSet walls = BitSet.valueOf(mask);
+                if (walls.length() > cellCount) {
+                    throw new IOException("Wall mask sets bits past the last cell");
+                }
+                return walls;
+            }
+            case WALLS_RUNS: {
+                BitSet walls = new BitSet(cellCount);
+                int runs = readVarint(in);
+                int cell = 0;
+                for (int i = 0; i < runs; i++) {
+                    int length = readVarint(in);
+                    if (length > cellCount - cell) {
+                        throw new IOException("Wall runs exceed the grid");
+                    }
+                    if (i % 2 == 1) {
+                        walls.set(cell, cell + length);
+                    }
+                    cell += length;
+                }
+                return walls;
+            }
+            default:
+                throw new IOException("Unknown wall encoding " + encoding);
+        }
+    }
+
+    // Writes whichever of the bit mask and the run lengths is smaller.
+    private static void writeWalls(DataOutputStream out, BitSet walls, int cellCount) throws IOException {
+        if (walls.isEmpty()) {
+            out.writeByte(WALLS_NONE);
+            return;
+        }
+
+        ByteArrayOutputStream runBytes = new ByteArrayOutputStream();
+        DataOutputStream runs = new DataOutputStream(runBytes);
+        List<Integer> lengths = new ArrayList<>();
+        int cell = 0;
+        while (cell < cellCount) {
+            int wallStart = walls.nextSetBit(cell);
+            if (wallStart < 0) {
+                wallStart = cellCount;
+            }
+            lengths.add(wallStart - cell);
+            if (wallStart == cellCount) {
+                break;
+            }
+            int wallEnd = walls.nextClearBit(wallStart);
+            lengths.add(Math.min(wallEnd, cellCount) - wallStart);
+            cell = wallEnd;
+        }
+        writeVarint(runs, lengths.size());
+        for (int length : lengths) {
+            writeVarint(runs, length);
+        }
+
+        int maskSize = (cellCount + 7) / 8;
+        if (runs.size() < maskSize) {
+            out.writeByte(WALLS_RUNS);
+            runBytes.writeTo(out);
+        } else {
+            out.writeByte(WALLS_MASK);
+            byte[] mask = walls.toByteArray();
+            out.write(mask);
+            out.write(new byte[maskSize - mask.length]);
+        }
+    }
+
+    private static void writePoints(DataOutputStream out, List<Point> points) throws IOException {
+        writeVarint(out, points.size());
+        int x = 0;
+        int y = 0;
+        for (Point point : points) {
+            writeSigned(out, point.getX() - x);
+            writeSigned(out, point.getY() - y);
+            x = point.getX();
+            y = point.getY();
+        }
+    }
+
+    private static List<Point> readPoints(DataInputStream in) throws IOException {
+        int count = readVarint(in);
+        List<Point> points = new ArrayList<>(Math.min(count, 1 << 16));
+        int x = 0;
+        int y = 0;
+        for (int i = 0; i < count; i++) {
+            x += readSigned(in);
+            y += readSigned(in);
+            points.add(new Point(x, y));
+        }
+        return points;
+    }
+
+    private static void writeHeader(DataOutputStream out, int kind) throws IOException {
+        out.writeByte(MAGIC_A);
+        out.writeByte(MAGIC_G);
+        out.writeByte(VERSION);
+        out.writeByte(kind);
+    }
+
+    private static void readHeader(DataInputStream in, int kind) throws IOException {
+        if (in.readUnsignedByte() != MAGIC_A || in.readUnsignedByte() != MAGIC_G) {
+            throw new IOException("Not an algograph message");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported format version " + version);
+        }
+        if (in.readUnsignedByte() != kind) {
+            throw new IOException("Unexpected message kind");
+        }
+    }
+
+    private static void writeSigned(DataOutputStream out, int value) throws IOException {
+        // Masked so that a negative zigzag value is not sign-extended into a 10-byte varint.
+        writeVarint(out, ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    private static int readSigned(DataInputStream in) throws IOException {
+        long raw = readVarlong(in);
+        if ((raw & ~0xFFFFFFFFL) != 0) {
+            throw new IOException("Varint out of range");
+        }
+        int value = (int) raw;
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeSignedLong(DataOutputStream out, long value) throws IOException {
+        writeVarint(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static long readSignedLong(DataInputStream in) throws IOException {
+        long raw = readVarlong(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        long value = readVarlong(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Varint out of range");
+        }
+        return (int) value;
+    }
+
+    private static long readVarlong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+}
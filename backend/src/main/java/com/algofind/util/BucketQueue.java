@@ -0,0 +1,78 @@
+package com.algofind.util;
+
+import java.util.Arrays;
+
+/**
+ * Monotone bucket queue (Dial's algorithm) over int ids with whole-number keys, for
+ * searches in which every step costs a whole number from 0 to {@code maxStep}. The
+ * queued keys then never spread over more than {@code maxStep + 1} values, so that
+ * many buckets, used round-robin, hold them all: inserting and polling take constant
+ * time, plus one step for each empty bucket the poll passes over.
+ *
+ * <p>Keys must never drop below that of the last id polled. A lower key for an id that
+ * is already queued is added as a second entry rather than moved, so callers skip ids
+ * they have already settled when polling them, and {@link #size()} counts those
+ * entries too.
+ */
+public final class BucketQueue {
+
+    private static final int INITIAL_BUCKET_SLOTS = 16;
+
+    private final int[][] buckets;
+    private final int[] sizes;
+    // Bucket holding the smallest queued key, and that key.
+    private int cursor;
+    private long currentKey;
+    private int size;
+
+    public BucketQueue(int maxStep) {
+        this.buckets = new int[maxStep + 1][];
+        this.sizes = new int[maxStep + 1];
+    }
+
+    public int getMaxStep() {
+        return buckets.length - 1;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(int id, long key) {
+        int bucket = cursor + (int) (key - currentKey);
+        if (bucket >= buckets.length) {
+            bucket -= buckets.length;
+        }
+        int[] slots = buckets[bucket];
+        if (slots == null) {
+            slots = buckets[bucket] = new int[INITIAL_BUCKET_SLOTS];
+        } else if (sizes[bucket] == slots.length) {
+            slots = buckets[bucket] = Arrays.copyOf(slots, slots.length * 2);
+        }
+        slots[sizes[bucket]++] = id;
+        size++;
+    }
+
+    /**
+     * Removes an id with the smallest key; ids with equal keys come out in any order.
+     */
+    public int poll() {
+        while (sizes[cursor] == 0) {
+            cursor = cursor + 1 == buckets.length ? 0 : cursor + 1;
+            currentKey++;
+        }
+        size--;
+        return buckets[cursor][--sizes[cursor]];
+    }
+
+    public void clear() {
+        Arrays.fill(sizes, 0);
+        cursor = 0;
+        currentKey = 0;
+        size = 0;
+    }
+}
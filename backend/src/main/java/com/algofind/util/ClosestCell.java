@@ -0,0 +1,39 @@
+package com.algofind.util;
+
+import com.algofind.model.GridGraph;
+
+/**
+ * The cell with the lowest estimated cost to a target among those a search has
+ * settled, kept as it goes so that a search stopped early can end its best-so-far
+ * path there without going over the grid. Of cells with equal estimates, the first
+ * settled is kept.
+ */
+public final class ClosestCell {
+
+    private final GridGraph grid;
+    private final int target;
+    private int closest;
+    private double closestCost = Double.POSITIVE_INFINITY;
+
+    /**
+     * Starts out at {@code fallback}, which is what {@link #get()} returns until a
+     * cell is offered.
+     */
+    public ClosestCell(GridGraph grid, int target, int fallback) {
+        this.grid = grid;
+        this.target = target;
+        this.closest = fallback;
+    }
+
+    public void offer(int cell) {
+        double cost = grid.estimateCost(cell, target);
+        if (cost < closestCost) {
+            closest = cell;
+            closestCost = cost;
+        }
+    }
+
+    public int get() {
+        return closest;
+    }
+}
@@ -0,0 +1,119 @@
+package com.algofind.util;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over int ids in {@code [0, capacity)} with double keys. Each id is
+ * present at most once, so the heap never grows past the number of cells, and a
+ * lower key for an id already in the heap is applied in place.
+ *
+ * <p>Only the slot index is stored per id; ids and keys are stored per heap slot and
+ * grow with the frontier, which on large maps is far smaller than the cell count.
+ */
+public final class IndexedMinHeap {
+
+    private static final int INITIAL_SLOTS = 1024;
+
+    // Heap slot of each id plus one; zero means the id is not in the heap.
+    private final int[] positions;
+    private int[] heap;
+    private double[] keys;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        int slots = Math.min(capacity, INITIAL_SLOTS);
+        this.positions = new int[capacity];
+        this.heap = new int[slots];
+        this.keys = new double[slots];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int id) {
+        return positions[id] != 0;
+    }
+
+    public double peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * Inserts {@code id} with the given key, or lowers its key if it is already queued.
+     * A key that is not lower than the queued one is ignored.
+     */
+    public void insertOrDecrease(int id, double key) {
+        int position = positions[id] - 1;
+        if (position < 0) {
+            if (size == heap.length) {
+                grow();
+            }
+            siftUp(size++, id, key);
+        } else if (key < keys[position]) {
+            siftUp(position, id, key);
+        }
+    }
+
+    public int poll() {
+        int min = heap[0];
+        positions[min] = 0;
+        size--;
+        if (size > 0) {
+            siftDown(0, heap[size], keys[size]);
+        }
+        return min;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = 0;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position, int id, double key) {
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            if (keys[parentPosition] <= key) {
+                break;
+            }
+            place(position, heap[parentPosition], keys[parentPosition]);
+            position = parentPosition;
+        }
+        place(position, id, key);
+    }
+
+    private void siftDown(int position, int id, double key) {
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && keys[right] < keys[child]) {
+                child = right;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            place(position, heap[child], keys[child]);
+            position = child;
+        }
+        place(position, id, key);
+    }
+
+    private void place(int position, int id, double key) {
+        heap[position] = id;
+        keys[position] = key;
+        positions[id] = position + 1;
+    }
+
+    private void grow() {
+        int slots = (int) Math.min((long) heap.length * 2, positions.length);
+        heap = Arrays.copyOf(heap, slots);
+        keys = Arrays.copyOf(keys, slots);
+    }
+}
@@ -1,24 +1,78 @@
 package com.algofind.util;
 
 import com.algofind.dto.PathfindingRequest.Point;
+import com.algofind.model.GridGraph;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
 
+/**
+ * Parent pointers are stored as one byte per cell: the offset from a cell to its
+ * parent, encoded as {@code (dy + 1) * 3 + (dx + 1)}. The centre code (no offset)
+ * marks the start of the path.
+ */
 public final class PathUtils {
 
+    public static final byte NO_PARENT = 4;
+
     private PathUtils() {}
 
-    public static List<Point> reconstructPath(Map<Point, Point> parents, Point end) {
-        List<Point> path = new ArrayList<>();
-        Point current = end;
+    public static byte link(GridGraph grid, int cell, int parent) {
+        int dx = grid.getX(parent) - grid.getX(cell);
+        int dy = grid.getY(parent) - grid.getY(cell);
+        return (byte) ((dy + 1) * 3 + dx + 1);
+    }
+
+    public static int follow(GridGraph grid, int cell, byte link) {
+        return cell + (link / 3 - 1) * grid.getWidth() + (link % 3 - 1);
+    }
+
+    public static List<Point> reconstructPath(byte[] parents, int end, GridGraph grid) {
+        int length = 1;
+        for (int current = end; parents[current] != NO_PARENT; current = follow(grid, current, parents[current])) {
+            length++;
+        }
+
+        Point[] path = new Point[length];
+        int current = end;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = grid.toPoint(current);
+            if (i > 0) {
+                current = follow(grid, current, parents[current]);
+            }
+        }
+
+        return new ArrayList<>(Arrays.asList(path));
+    }
 
-        while (current != null) {
-            path.add(0, current);
-            current = parents.get(current);
+    /**
+     * The total movement cost of walking {@code path}, as the searches count it.
+     */
+    public static double pathCost(GridGraph grid, List<Point> path) {
+        double cost = 0.0;
+        for (int i = 1; i < path.size(); i++) {
+            cost += grid.getMovementCost(grid.indexOf(path.get(i - 1)), grid.indexOf(path.get(i)));
         }
+        return cost;
+    }
 
-        return path;
+    /**
+     * The cell of {@code reached} with the lowest estimated cost to {@code target}, or
+     * {@code fallback} when {@code reached} is empty. Used as the end of the best-so-far
+     * path when a search is stopped early.
+     */
+    public static int closestTo(GridGraph grid, BitSet reached, int target, int fallback) {
+        int closest = fallback;
+        double closestCost = Double.POSITIVE_INFINITY;
+        for (int cell = reached.nextSetBit(0); cell >= 0; cell = reached.nextSetBit(cell + 1)) {
+            double cost = grid.estimateCost(cell, target);
+            if (cost < closestCost) {
+                closest = cell;
+                closestCost = cost;
+            }
+        }
+        return closest;
     }
 }
@@ -0,0 +1,95 @@
+package com.algofind.util;
+
+import java.util.Arrays;
+
+/**
+ * Per-cell state of a best-first search (cost, parent link, closed flag) plus its
+ * queues, sized for grids of up to {@code capacity} cells and reused across searches.
+ *
+ * <p>Nothing is cleared between searches. Each cell carries the generation that last
+ * wrote it: {@code generation} marks a reached cell and {@code generation + 1} a
+ * closed one, and anything older reads as unreached. {@link #reset()} moves on by two
+ * generations, so starting a search costs the same on any grid size.
+ */
+public final class SearchWorkspace {
+
+    private final int capacity;
+    private final double[] costs;
+    private final byte[] parents;
+    private final int[] stamps;
+    private final IndexedMinHeap queue;
+    private BucketQueue bucketQueue;
+    private int generation = 1;
+
+    public SearchWorkspace(int capacity) {
+        this.capacity = capacity;
+        this.costs = new double[capacity];
+        this.parents = new byte[capacity];
+        this.stamps = new int[capacity];
+        this.queue = new IndexedMinHeap(capacity);
+    }
+
+    public void reset() {
+        queue.clear();
+        if (bucketQueue != null) {
+            bucketQueue.clear();
+        }
+        if (generation >= Integer.MAX_VALUE - 2) {
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        } else {
+            generation += 2;
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public IndexedMinHeap queue() {
+        return queue;
+    }
+
+    /**
+     * A bucket queue taking steps of up to {@code maxStep}, created on first use and
+     * kept for later searches with steps no larger.
+     */
+    public BucketQueue bucketQueue(int maxStep) {
+        if (bucketQueue == null || bucketQueue.getMaxStep() < maxStep) {
+            bucketQueue = new BucketQueue(maxStep);
+        }
+        return bucketQueue;
+    }
+
+    /**
+     * Cost recorded for {@code cell} in this search, or infinity if it was not reached.
+     */
+    public double cost(int cell) {
+        return stamps[cell] >= generation ? costs[cell] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Records a cheaper way to reach {@code cell}, which must not be closed.
+     */
+    public void reach(int cell, double cost, byte parent) {
+        stamps[cell] = generation;
+        costs[cell] = cost;
+        parents[cell] = parent;
+    }
+
+    public void close(int cell) {
+        stamps[cell] = generation + 1;
+    }
+
+    public boolean isClosed(int cell) {
+        return stamps[cell] == generation + 1;
+    }
+
+    /**
+     * Parent links in the {@link PathUtils} encoding. Only entries of cells reached in
+     * this search are meaningful.
+     */
+    public byte[] parents() {
+        return parents;
+    }
+}